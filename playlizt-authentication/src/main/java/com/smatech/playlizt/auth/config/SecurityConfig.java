@@ -7,7 +7,9 @@
  */
 package zw.co.t3ratech.playlizt.auth.config;
 
+import zw.co.t3ratech.playlizt.auth.security.BoundedPasswordEncoder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -24,7 +26,7 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.max-concurrent-hashes:0}") int maxConcurrentHashes) {
         // Argon2id - Quantum-resistant password hashing
         // Uses Spring Security's default secure parameters:
         // Salt length: 16 bytes
@@ -32,7 +34,8 @@ public class SecurityConfig {
         // Parallelism: 1
         // Memory: 47104 KB (46 MB)
         // Iterations: 1
-        return Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        int permits = maxConcurrentHashes > 0 ? maxConcurrentHashes : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(), permits);
     }
 
     @Bean
@@ -0,0 +1,65 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 20:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.auth.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many hashes run at once. Argon2 needs ~46 MB and a full core per call, so with one virtual
+ * thread per request an unbounded login burst would exhaust heap and starve the carrier threads; waiting
+ * callers park on the semaphore instead, which costs a virtual thread nothing.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return withPermit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return withPermit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private <T> T withPermit(Supplier<T> hash) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash password", e);
+        }
+        try {
+            return hash.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
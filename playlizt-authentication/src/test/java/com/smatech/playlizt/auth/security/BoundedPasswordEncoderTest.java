@@ -0,0 +1,75 @@
+package zw.co.t3ratech.playlizt.auth.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void shouldCapConcurrentHashesAcrossVirtualThreads() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    active.decrementAndGet();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 2);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 32; i++) {
+                String password = "password" + i;
+                results.add(executor.submit(() -> encoder.encode(password)));
+            }
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("hashed:password" + i, results.get(i).get());
+        }
+        assertTrue(peak.get() <= 2, "at most two hashes should run at once but saw " + peak.get());
+        assertEquals(2, encoder.availablePermits());
+        assertTrue(encoder.matches("secret", "hashed:secret"));
+    }
+
+    @Test
+    void shouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoundedPasswordEncoder(new NoopEncoder(), 0));
+    }
+
+    private static class NoopEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
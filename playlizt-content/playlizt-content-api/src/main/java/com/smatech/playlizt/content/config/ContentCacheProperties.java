@@ -0,0 +1,23 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 03:05
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "content.cache")
+@Data
+public class ContentCacheProperties {
+    private long maximumSize = 10_000;
+    // View counts are not part of the version, and changes made through other instances are not seen, until this passes
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
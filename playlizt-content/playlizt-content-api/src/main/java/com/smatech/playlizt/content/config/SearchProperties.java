@@ -0,0 +1,58 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:55
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "content.search")
+@Data
+public class SearchProperties {
+    private Index index = new Index();
+    private Suggest suggest = new Suggest();
+    private ResultCache resultCache = new ResultCache();
+
+    @Data
+    public static class Index {
+        // When disabled, or until the startup rebuild finishes, queries go to Postgres full-text search
+        private boolean enabled = true;
+        // BM25 term frequency saturation and document length normalisation
+        private double k1 = 1.2;
+        private double b = 0.75;
+        // Content ids covered by one load query during a rebuild
+        private int rebuildBatchSize = 1000;
+        // Load queries run at once during a rebuild; each holds a database connection
+        private int rebuildParallelism = 4;
+        // Changes made through other instances only reach this index with the next periodic rebuild
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Suggest {
+        // Content changes are batched into one trie rebuild per interval
+        private Duration rebuildInterval = Duration.ofSeconds(5);
+        // View counts only change through the database, so suggestions are reloaded from it on this interval
+        private Duration refreshInterval = Duration.ofMinutes(10);
+        private int maxSuggestions = 10;
+        // Titles can be completed from the start of each of their first this many words
+        private int maxTitleWords = 8;
+    }
+
+    @Data
+    public static class ResultCache {
+        private boolean enabled = true;
+        // Bound on the estimated memory held by cached result pages
+        private long maximumWeightBytes = 32L * 1024 * 1024;
+        // Upper bound on staleness for view counts and for changes made through other instances
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+}
@@ -9,7 +9,10 @@ package zw.co.t3ratech.playlizt.content.controller;
 
 import zw.co.t3ratech.playlizt.content.dto.ContentRequest;
 import zw.co.t3ratech.playlizt.content.dto.ContentResponse;
+import zw.co.t3ratech.playlizt.content.dto.SuggestionResponse;
+import zw.co.t3ratech.playlizt.content.service.ContentCache;
 import zw.co.t3ratech.playlizt.content.service.ContentService;
+import zw.co.t3ratech.playlizt.content.service.ContentSuggestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -21,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -30,6 +34,7 @@ import java.util.List;
 public class ContentController {
 
     private final ContentService contentService;
+    private final ContentSuggestionService contentSuggestionService;
 
     @PostMapping
     @Operation(summary = "Add content", description = "Upload new content with optional AI enhancement")
@@ -38,9 +43,18 @@ public class ContentController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get content", description = "Get content by ID")
+    @Operation(summary = "Get content", description = "Get content by ID. Sends ETag and Last-Modified; a matching If-None-Match or If-Modified-Since gets 304 Not Modified")
     public ResponseEntity<ContentResponse> getContent(@PathVariable Long id) {
-        return ResponseEntity.ok(contentService.getContent(id));
+        ContentResponse content = contentService.getContent(id);
+        String version = ContentCache.version(content);
+        if (version == null) {
+            return ResponseEntity.ok(content);
+        }
+        // Weak, since view counts change without changing the version; Spring answers conditional GETs from these headers
+        return ResponseEntity.ok()
+                .eTag("W/\"" + version + "\"")
+                .lastModified(content.getUpdatedAt().atZone(ZoneId.systemDefault()))
+                .body(content);
     }
 
     @GetMapping
@@ -60,7 +74,7 @@ public class ContentController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search content", description = "Search content by query with optional filters")
+    @Operation(summary = "Search content", description = "Search content by query with optional filters. Results for a query are ranked by relevance; sort applies when q is empty")
     public ResponseEntity<Page<ContentResponse>> searchContent(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String category,
@@ -79,6 +93,14 @@ public class ContentController {
         return ResponseEntity.ok(contentService.searchContent(q, category, minDuration, maxDuration, pageRequest));
     }
 
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest content", description = "Typeahead completions of published titles and tags for a prefix, most viewed first. Served from memory and may lag content changes by a few seconds")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(contentSuggestionService.suggest(prefix, limit));
+    }
+
     @GetMapping("/categories")
     @Operation(summary = "List categories", description = "Get all content categories")
     public ResponseEntity<List<String>> getCategories() {
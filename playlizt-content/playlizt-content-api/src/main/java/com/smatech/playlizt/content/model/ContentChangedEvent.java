@@ -0,0 +1,43 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.model;
+
+import zw.co.t3ratech.playlizt.content.entity.Content;
+import lombok.Value;
+
+/**
+ * Published as an application event whenever a content item is saved or deleted. Components that keep
+ * in-memory copies of content listen for it once the surrounding transaction has committed.
+ */
+@Value
+public class ContentChangedEvent {
+    Long contentId;
+    // Saved state, read after commit so generated columns such as updatedAt are set; null once deleted
+    Content content;
+    // Category the content was searchable under before the change; null if it was not published
+    String previousCategory;
+
+    public static ContentChangedEvent saved(Content content, String previousCategory) {
+        return new ContentChangedEvent(content.getId(), content, previousCategory);
+    }
+
+    public static ContentChangedEvent deleted(Long contentId, String previousCategory) {
+        return new ContentChangedEvent(contentId, null, previousCategory);
+    }
+
+    /**
+     * The category search results list this content under, or null while it is unpublished.
+     */
+    public static String searchableCategory(Content content) {
+        return Boolean.TRUE.equals(content.getIsPublished()) ? content.getCategory() : null;
+    }
+
+    public boolean isDeleted() {
+        return content == null;
+    }
+}
@@ -34,11 +34,45 @@ public interface ContentRepository extends JpaRepository<Content, Long>, JpaSpec
     
     Page<Content> findByCategory(String category, Pageable pageable);
     
-    @Query("SELECT c FROM Content c WHERE c.isPublished = true AND " +
-           "(LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Content> searchContent(@Param("query") String query, Pageable pageable);
+    // search_vector and its GIN index are maintained by triggers in schema-postgresql.sql
+    String SEARCH_FILTERS = " FROM {h-schema}content c WHERE c.is_published = true " +
+            "AND c.search_vector @@ websearch_to_tsquery('english', :query) " +
+            "AND (CAST(:category AS VARCHAR) IS NULL OR c.category = :category) " +
+            "AND (CAST(:minDuration AS INTEGER) IS NULL OR c.duration_seconds >= :minDuration) " +
+            "AND (CAST(:maxDuration AS INTEGER) IS NULL OR c.duration_seconds <= :maxDuration)";
+
+    /**
+     * Published content matching a web-search style query ("quoted phrases", or, -exclusions), best match
+     * first. Ordering is fixed, so {@code pageable} must be unsorted.
+     */
+    @Query(value = "SELECT c.*" + SEARCH_FILTERS +
+            " ORDER BY ts_rank_cd(c.search_vector, websearch_to_tsquery('english', :query)) DESC, c.created_at DESC, c.id DESC",
+            countQuery = "SELECT COUNT(*)" + SEARCH_FILTERS,
+            nativeQuery = true)
+    Page<Content> searchContent(@Param("query") String query,
+                                @Param("category") String category,
+                                @Param("minDuration") Integer minDuration,
+                                @Param("maxDuration") Integer maxDuration,
+                                Pageable pageable);
     
+    @Query("SELECT MAX(c.id) FROM Content c")
+    Long findMaxId();
+
+    /**
+     * Published content with ids in {@code (afterId, toId]}, tags fetched in the same query.
+     */
+    @Query("SELECT DISTINCT c FROM Content c LEFT JOIN FETCH c.tags " +
+            "WHERE c.isPublished = true AND c.id > :afterId AND c.id <= :toId")
+    List<Content> findPublishedInIdRange(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+    // Rows of (id, title, viewCount)
+    @Query("SELECT c.id, c.title, c.viewCount FROM Content c WHERE c.isPublished = true")
+    List<Object[]> findPublishedTitles();
+
+    // Rows of (id, tag)
+    @Query("SELECT c.id, t FROM Content c JOIN c.tags t WHERE c.isPublished = true")
+    List<Object[]> findPublishedTags();
+
     @Query("SELECT DISTINCT c.category FROM Content c WHERE c.isPublished = true ORDER BY c.category")
     List<String> findAllCategories();
     
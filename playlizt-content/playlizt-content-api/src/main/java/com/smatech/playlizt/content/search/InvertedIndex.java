@@ -0,0 +1,421 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:47
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over content, ranked with BM25. Fields are folded into one weighted term
+ * frequency per document (title, then tags, then description, then AI description, in the same order of
+ * importance as the database search vector), and category and duration are kept per document as doc
+ * values so filters are checked while the postings are walked rather than afterwards.
+ * <p>
+ * Every query term must match, and terms written with a leading '-' exclude documents that contain them.
+ * <p>
+ * Each stored version of a document gets the next ordinal, so postings are appended in ordinal order and
+ * stay sorted for intersection. Replacing or removing a document only marks its old ordinal dead; dead
+ * ordinals are dropped and the rest renumbered once they make up a quarter of the index.
+ */
+public class InvertedIndex {
+
+    static final float TITLE_WEIGHT = 3.0f;
+    static final float TAG_WEIGHT = 2.0f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+    static final float AI_DESCRIPTION_WEIGHT = 0.5f;
+
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+    private static final int NO_CATEGORY = -1;
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+
+    private final double k1;
+    private final double b;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    // Doc values, indexed by ordinal
+    private long[] ids = new long[64];
+    private int[] categories = new int[64];
+    private int[] durations = new int[64];
+    private long[] createdAt = new long[64];
+    private float[] lengths = new float[64];
+    private String[][] terms = new String[64][];
+    private int nextOrdinal;
+    private int dead;
+    private double totalLength;
+
+    public InvertedIndex(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Runs the analysis for one document. This is the expensive part of indexing and needs no lock, so
+     * callers analyze before calling {@link #put(AnalyzedDocument)}, in parallel when loading many.
+     */
+    public static AnalyzedDocument analyze(SearchDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = addTerms(frequencies, document.getTitle(), TITLE_WEIGHT);
+        if (document.getTags() != null) {
+            for (String tag : document.getTags()) {
+                length += addTerms(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+        length += addTerms(frequencies, document.getDescription(), DESCRIPTION_WEIGHT);
+        length += addTerms(frequencies, document.getAiGeneratedDescription(), AI_DESCRIPTION_WEIGHT);
+        return new AnalyzedDocument(document.getId(), document.getCategory(), document.getDurationSeconds(),
+                document.getCreatedAtMillis(), length, frequencies);
+    }
+
+    private static float addTerms(Map<String, Float> frequencies, String text, float weight) {
+        List<String> analyzed = TextAnalyzer.analyze(text);
+        for (String term : analyzed) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+        return analyzed.size() * weight;
+    }
+
+    public void put(SearchDocument document) {
+        put(analyze(document));
+    }
+
+    /**
+     * Adds the document, replacing any earlier version with the same id.
+     */
+    public void put(AnalyzedDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id);
+            if (nextOrdinal == ids.length) {
+                grow();
+            }
+            int ordinal = nextOrdinal++;
+            ids[ordinal] = document.id;
+            categories[ordinal] = document.category == null ? NO_CATEGORY
+                    : categoryOrdinals.computeIfAbsent(document.category, c -> categoryOrdinals.size());
+            durations[ordinal] = document.durationSeconds == null ? NO_DURATION : document.durationSeconds;
+            createdAt[ordinal] = document.createdAtMillis;
+            lengths[ordinal] = document.length;
+            terms[ordinal] = document.frequencies.keySet().toArray(new String[0]);
+            document.frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new PostingList()).add(ordinal, frequency));
+            live.set(ordinal);
+            ordinals.put(document.id, ordinal);
+            totalLength += document.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        totalLength -= lengths[ordinal];
+        for (String term : terms[ordinal]) {
+            PostingList list = postings.get(term);
+            if (--list.live == 0) {
+                postings.remove(term);
+            }
+        }
+        terms[ordinal] = null;
+        dead++;
+        if (dead >= MIN_DEAD_TO_COMPACT && dead * 4 >= nextOrdinal) {
+            compact();
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        terms = Arrays.copyOf(terms, capacity);
+    }
+
+    /**
+     * Renumbers live documents from zero, dropping dead ordinals from the doc values and postings. The
+     * mapping keeps relative order, so postings stay sorted.
+     */
+    private void compact() {
+        int[] remap = new int[nextOrdinal];
+        int size = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (!live.get(ordinal)) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = size;
+            ids[size] = ids[ordinal];
+            categories[size] = categories[ordinal];
+            durations[size] = durations[ordinal];
+            createdAt[size] = createdAt[ordinal];
+            lengths[size] = lengths[ordinal];
+            terms[size] = terms[ordinal];
+            ordinals.put(ids[size], size);
+            size++;
+        }
+        Arrays.fill(terms, size, nextOrdinal, null);
+        for (PostingList list : postings.values()) {
+            list.remap(remap);
+        }
+        live.clear();
+        live.set(0, size);
+        nextOrdinal = size;
+        dead = 0;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the documents matching {@code query} and the optional filters, returning the ids of hits
+     * {@code offset} to {@code offset + limit} and the total number of matches.
+     */
+    public SearchHits search(String query, String category, Integer minDuration, Integer maxDuration, int offset, int limit) {
+        Set<String> required = new LinkedHashSet<>();
+        Set<String> excluded = new LinkedHashSet<>();
+        for (String word : query.trim().split("\\s+")) {
+            (word.startsWith("-") ? excluded : required).addAll(TextAnalyzer.analyze(word));
+        }
+        required.removeAll(excluded);
+        if (required.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int categoryFilter = NO_CATEGORY;
+            if (category != null) {
+                Integer ordinal = categoryOrdinals.get(category);
+                if (ordinal == null) {
+                    return SearchHits.EMPTY;
+                }
+                categoryFilter = ordinal;
+            }
+            int min = minDuration == null ? NO_DURATION : minDuration;
+            long max = maxDuration == null ? Long.MAX_VALUE : maxDuration;
+            boolean durationFiltered = minDuration != null || maxDuration != null;
+
+            PostingList[] lists = new PostingList[required.size()];
+            int n = 0;
+            for (String term : required) {
+                lists[n] = postings.get(term);
+                if (lists[n++] == null) {
+                    return SearchHits.EMPTY;
+                }
+            }
+            // Walk the rarest term and leap through the others
+            Arrays.sort(lists, Comparator.comparingInt((PostingList list) -> list.live));
+            double[] idf = new double[lists.length];
+            int documentCount = ordinals.size();
+            for (int i = 0; i < lists.length; i++) {
+                idf[i] = Math.log(1 + (documentCount - lists[i].live + 0.5) / (lists[i].live + 0.5));
+            }
+            double averageLength = totalLength / documentCount;
+            List<PostingList> exclusions = new ArrayList<>(excluded.size());
+            for (String term : excluded) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    exclusions.add(list);
+                }
+            }
+            int[] cursors = new int[lists.length];
+            int[] exclusionCursors = new int[exclusions.size()];
+
+            long window = Math.min((long) offset + limit, Integer.MAX_VALUE);
+            // Worst kept hit at the head
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.reverseOrder());
+            long total = 0;
+            PostingList lead = lists[0];
+            candidates:
+            for (int i = 0; i < lead.size; i++) {
+                int ordinal = lead.ordinals[i];
+                // As in SQL, content without a duration never satisfies a duration bound
+                if (!live.get(ordinal)
+                        || (categoryFilter != NO_CATEGORY && categories[ordinal] != categoryFilter)
+                        || (durationFiltered && (durations[ordinal] == NO_DURATION
+                                || durations[ordinal] < min || durations[ordinal] > max))) {
+                    continue;
+                }
+                double norm = k1 * (1 - b + b * lengths[ordinal] / averageLength);
+                double score = idf[0] * lead.frequencies[i] * (k1 + 1) / (lead.frequencies[i] + norm);
+                for (int t = 1; t < lists.length; t++) {
+                    PostingList list = lists[t];
+                    cursors[t] = list.advance(cursors[t], ordinal);
+                    if (cursors[t] == list.size) {
+                        break candidates;
+                    }
+                    if (list.ordinals[cursors[t]] != ordinal) {
+                        continue candidates;
+                    }
+                    float frequency = list.frequencies[cursors[t]];
+                    score += idf[t] * frequency * (k1 + 1) / (frequency + norm);
+                }
+                for (int e = 0; e < exclusionCursors.length; e++) {
+                    PostingList list = exclusions.get(e);
+                    exclusionCursors[e] = list.advance(exclusionCursors[e], ordinal);
+                    if (exclusionCursors[e] < list.size && list.ordinals[exclusionCursors[e]] == ordinal) {
+                        continue candidates;
+                    }
+                }
+                total++;
+                if (top.size() < window) {
+                    top.add(new Hit(score, createdAt[ordinal], ids[ordinal]));
+                } else if (window > 0 && top.peek().compareTo(score, createdAt[ordinal], ids[ordinal]) > 0) {
+                    top.poll();
+                    top.add(new Hit(score, createdAt[ordinal], ids[ordinal]));
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(top.poll().id);
+            }
+            Collections.reverse(ranked);
+            return new SearchHits(total, offset >= ranked.size() ? List.of() : List.copyOf(ranked.subList(offset, ranked.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A document reduced to its weighted term frequencies and doc values.
+     */
+    public static final class AnalyzedDocument {
+        private final long id;
+        private final String category;
+        private final Integer durationSeconds;
+        private final long createdAtMillis;
+        private final float length;
+        private final Map<String, Float> frequencies;
+
+        private AnalyzedDocument(long id, String category, Integer durationSeconds, long createdAtMillis,
+                                 float length, Map<String, Float> frequencies) {
+            this.id = id;
+            this.category = category;
+            this.durationSeconds = durationSeconds;
+            this.createdAtMillis = createdAtMillis;
+            this.length = length;
+            this.frequencies = frequencies;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    private static final class PostingList {
+        private int[] ordinals = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+        // Entries whose ordinal is still live, i.e. the document frequency
+        private int live;
+
+        private void add(int ordinal, float frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        /**
+         * Index of the first entry at or after {@code from} whose ordinal is not below {@code target}, or
+         * {@code size}. Gallops before the binary search since targets are usually close.
+         */
+        private int advance(int from, int target) {
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && ordinals[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(ordinals, low, Math.min(high + 1, size), target);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        private void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    private static final class Hit implements Comparable<Hit> {
+        private final double score;
+        private final long createdAtMillis;
+        private final long id;
+
+        private Hit(double score, long createdAtMillis, long id) {
+            this.score = score;
+            this.createdAtMillis = createdAtMillis;
+            this.id = id;
+        }
+
+        /**
+         * Negative when this hit ranks above the given one: higher score, then newer, then higher id.
+         */
+        private int compareTo(double otherScore, long otherCreatedAtMillis, long otherId) {
+            int byScore = Double.compare(otherScore, score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byAge = Long.compare(otherCreatedAtMillis, createdAtMillis);
+            return byAge != 0 ? byAge : Long.compare(otherId, id);
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            return compareTo(other.score, other.createdAtMillis, other.id);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:44
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * The searchable fields of one published content item, plus the values it can be filtered and ordered on.
+ */
+@Value
+@Builder
+public class SearchDocument {
+    long id;
+    String title;
+    String description;
+    List<String> tags;
+    String aiGeneratedDescription;
+    String category;
+    Integer durationSeconds;
+    // Tie-breaker between equal scores, newest first as in the database search
+    long createdAtMillis;
+}
@@ -0,0 +1,23 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:45
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of content ids in rank order, with the number of documents that matched in total.
+ */
+@Value
+public class SearchHits {
+    public static final SearchHits EMPTY = new SearchHits(0, List.of());
+
+    long totalHits;
+    List<Long> ids;
+}
@@ -0,0 +1,30 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 01:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One completion offered by {@link SuggestionTrie}: a published title or a tag, and the view count it is
+ * ranked by.
+ */
+@Value
+@Builder
+public class Suggestion {
+    String text;
+    Type type;
+    // The most viewed content with this title; null for tags
+    Long contentId;
+    long weight;
+
+    public enum Type {
+        TITLE,
+        TAG
+    }
+}
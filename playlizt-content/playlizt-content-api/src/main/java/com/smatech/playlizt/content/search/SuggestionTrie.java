@@ -0,0 +1,259 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 01:44
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.search;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable radix trie from normalized prefixes to the best suggestions below them. Chains of single-child
+ * nodes are collapsed into one edge label, and every node stores its top suggestions by weight, so a
+ * lookup is a walk down at most {@code prefix.length()} edges followed by a copy of that list.
+ * <p>
+ * Titles are reachable from the start of each of their first words, so "matrix" finds "The Matrix", and
+ * tags from their start. Nodes are laid out breadth first in flat arrays; changes are made by building a
+ * new trie and swapping it in.
+ */
+public final class SuggestionTrie {
+
+    public static final SuggestionTrie EMPTY = build(List.of(), 1, 1);
+
+    private static final Comparator<Suggestion> BEST_FIRST = Comparator.comparingLong(Suggestion::getWeight).reversed()
+            .thenComparing(Suggestion::getText);
+
+    private final Suggestion[] suggestions;
+    private final String[] labels;
+    // Children of node n are childNodes[childStart[n]] up to childNodes[childStart[n + 1]], sorted by first char
+    private final int[] childStart;
+    private final char[] childChars;
+    private final int[] childNodes;
+    // Suggestion indexes, best first
+    private final int[][] top;
+
+    private SuggestionTrie(Suggestion[] suggestions, String[] labels, int[] childStart, char[] childChars,
+                           int[] childNodes, int[][] top) {
+        this.suggestions = suggestions;
+        this.labels = labels;
+        this.childStart = childStart;
+        this.childChars = childChars;
+        this.childNodes = childNodes;
+        this.top = top;
+    }
+
+    /**
+     * Lower case, accents and apostrophes removed, and any run of other non-alphanumeric characters
+     * reduced to a single space.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '\'') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * @param topK          suggestions kept per node, the most a lookup can return
+     * @param maxTitleWords titles are reachable from the start of each of their first this many words
+     */
+    public static SuggestionTrie build(List<Suggestion> suggestions, int topK, int maxTitleWords) {
+        Suggestion[] ranked = suggestions.toArray(new Suggestion[0]);
+        // Sorting the suggestions up front lets every node rank by index alone
+        Arrays.sort(ranked, BEST_FIRST);
+
+        List<Key> keys = new ArrayList<>();
+        for (int index = 0; index < ranked.length; index++) {
+            String normalized = normalize(ranked[index].getText());
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            keys.add(new Key(normalized, index));
+            if (ranked[index].getType() == Suggestion.Type.TITLE) {
+                int words = 1;
+                for (int i = normalized.indexOf(' '); i >= 0 && words < maxTitleWords; i = normalized.indexOf(' ', i + 1)) {
+                    keys.add(new Key(normalized.substring(i + 1), index));
+                    words++;
+                }
+            }
+        }
+        keys.sort(Comparator.comparing((Key key) -> key.text).thenComparingInt(key -> key.suggestion));
+
+        Node root = keys.isEmpty() ? new Node("") : node(keys, 0, keys.size(), 0, 0, Math.max(1, topK));
+        return flatten(ranked, root);
+    }
+
+    public List<Suggestion> lookup(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int node = 0;
+        int position = 0;
+        while (position < normalized.length()) {
+            node = child(node, normalized.charAt(position));
+            if (node < 0) {
+                return List.of();
+            }
+            String label = labels[node];
+            int length = Math.min(label.length(), normalized.length() - position);
+            if (!normalized.regionMatches(position, label, 0, length)) {
+                return List.of();
+            }
+            position += length;
+        }
+        int[] best = top[node];
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, best.length));
+        for (int i = 0; i < best.length && i < limit; i++) {
+            result.add(suggestions[best[i]]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    private int child(int node, char c) {
+        int found = Arrays.binarySearch(childChars, childStart[node], childStart[node + 1], c);
+        return found >= 0 ? childNodes[found] : -1;
+    }
+
+    /**
+     * Node for sorted keys {@code [lo, hi)}, which all start with the same {@code end} characters; the
+     * node's edge label is the part after {@code depth}.
+     */
+    private static Node node(List<Key> keys, int lo, int hi, int depth, int end, int topK) {
+        Node node = new Node(keys.get(lo).text.substring(depth, end));
+        int[] candidates = new int[Math.min(hi - lo, 16)];
+        int count = 0;
+        int i = lo;
+        // Keys that end here sort before the keys that continue
+        while (i < hi && keys.get(i).text.length() == end) {
+            if (count == candidates.length) {
+                candidates = Arrays.copyOf(candidates, count * 2);
+            }
+            candidates[count++] = keys.get(i++).suggestion;
+        }
+        while (i < hi) {
+            char c = keys.get(i).text.charAt(end);
+            int j = i + 1;
+            while (j < hi && keys.get(j).text.charAt(end) == c) {
+                j++;
+            }
+            Node child = node(keys, i, j, end, commonPrefixEnd(keys.get(i).text, keys.get(j - 1).text, end + 1), topK);
+            node.children.add(child);
+            if (count + child.top.length > candidates.length) {
+                candidates = Arrays.copyOf(candidates, Math.max(count * 2, count + child.top.length));
+            }
+            System.arraycopy(child.top, 0, candidates, count, child.top.length);
+            count += child.top.length;
+            i = j;
+        }
+        node.top = best(candidates, count, topK);
+        return node;
+    }
+
+    /**
+     * The {@code topK} lowest distinct indexes, which are the best suggestions since they are sorted.
+     */
+    private static int[] best(int[] candidates, int count, int topK) {
+        Arrays.sort(candidates, 0, count);
+        int[] best = new int[Math.min(count, topK)];
+        int size = 0;
+        for (int i = 0; i < count && size < best.length; i++) {
+            if (size == 0 || best[size - 1] != candidates[i]) {
+                best[size++] = candidates[i];
+            }
+        }
+        return size == best.length ? best : Arrays.copyOf(best, size);
+    }
+
+    private static int commonPrefixEnd(String first, String last, int from) {
+        int end = from;
+        int max = Math.min(first.length(), last.length());
+        while (end < max && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        return end;
+    }
+
+    private static SuggestionTrie flatten(Suggestion[] suggestions, Node root) {
+        List<Node> order = new ArrayList<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.id = order.size();
+            order.add(node);
+            queue.addAll(node.children);
+        }
+
+        int count = order.size();
+        String[] labels = new String[count];
+        int[] childStart = new int[count + 1];
+        char[] childChars = new char[count - 1];
+        int[] childNodes = new int[count - 1];
+        int[][] top = new int[count][];
+        int edge = 0;
+        for (Node node : order) {
+            labels[node.id] = node.label;
+            top[node.id] = node.top;
+            childStart[node.id] = edge;
+            for (Node child : node.children) {
+                childChars[edge] = child.label.charAt(0);
+                childNodes[edge] = child.id;
+                edge++;
+            }
+        }
+        childStart[count] = edge;
+        return new SuggestionTrie(suggestions, labels, childStart, childChars, childNodes, top);
+    }
+
+    private static final class Key {
+        private final String text;
+        private final int suggestion;
+
+        private Key(String text, int suggestion) {
+            this.text = text;
+            this.suggestion = suggestion;
+        }
+    }
+
+    private static final class Node {
+        private final String label;
+        private final List<Node> children = new ArrayList<>();
+        private int[] top = new int[0];
+        private int id;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
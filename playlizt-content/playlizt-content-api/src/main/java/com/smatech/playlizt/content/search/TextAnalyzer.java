@@ -0,0 +1,73 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:42
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits text into index terms: accents folded, lower-cased, split on anything that is not a letter or
+ * digit, English stop words dropped and plurals reduced to their singular. Documents and queries go
+ * through the same analysis so that their terms line up.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "if", "in",
+            "into", "is", "it", "its", "no", "not", "of", "on", "or", "so", "such", "that", "the", "their",
+            "then", "there", "these", "they", "this", "to", "was", "were", "will", "with");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '\'') {
+                // Accents and apostrophes are dropped without ending the token ("don't" -> "dont")
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else {
+                addTerm(terms, token);
+            }
+        }
+        addTerm(terms, token);
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, StringBuilder token) {
+        if (token.length() > 1) {
+            String term = token.toString();
+            if (!STOP_WORDS.contains(term)) {
+                terms.add(stem(term));
+            }
+        }
+        token.setLength(0);
+    }
+
+    static String stem(String term) {
+        int length = term.length();
+        if (length > 4 && term.endsWith("ies")) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (length > 3 && term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+}
@@ -9,9 +9,11 @@ package zw.co.t3ratech.playlizt.content.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
 import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +29,7 @@ public class AsyncContentEnhancer {
 
     private final GeminiAiService geminiAiService;
     private final ContentRepository contentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Async
     @Transactional
@@ -67,7 +70,9 @@ public class AsyncContentEnhancer {
                 content.setAiSentiment(metadata.get("sentiment").asText());
             }
             
-            contentRepository.save(content);
+            // Category is not changed here, so the content stays searchable under the one it has
+            eventPublisher.publishEvent(ContentChangedEvent.saved(contentRepository.save(content),
+                    ContentChangedEvent.searchableCategory(content)));
             log.info("Completed async AI enhancement for content id={}", content.getId());
             
         } catch (Exception e) {
@@ -0,0 +1,63 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 03:08
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import zw.co.t3ratech.playlizt.content.config.ContentCacheProperties;
+import zw.co.t3ratech.playlizt.content.dto.ContentResponse;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single content items by id. Entries are dropped once a change to the item has
+ * committed; a load that read the old row and is still running at that point is dropped as soon as it
+ * completes, since Caffeine holds the invalidation until then.
+ * <p>
+ * Cached responses are shared between requests and must not be modified.
+ */
+@Component
+public class ContentCache {
+
+    private final Cache<Long, ContentResponse> contents;
+
+    public ContentCache(ContentCacheProperties contentCacheProperties, MeterRegistry meterRegistry) {
+        this.contents = Caffeine.newBuilder()
+                .maximumSize(contentCacheProperties.getMaximumSize())
+                .expireAfterWrite(contentCacheProperties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, contents, "content");
+    }
+
+    public ContentResponse get(Long id, Function<Long, ContentResponse> loader) {
+        return contents.get(id, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        contents.invalidate(event.getContentId());
+    }
+
+    /**
+     * Version of the stored row, changing whenever it is saved. View count increments do not touch
+     * updatedAt, so responses with the same version may differ in view count.
+     */
+    public static String version(ContentResponse content) {
+        if (content.getUpdatedAt() == null) {
+            return null;
+        }
+        return content.getId() + "-" + content.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
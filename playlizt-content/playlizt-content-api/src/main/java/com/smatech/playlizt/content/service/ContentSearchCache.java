@@ -0,0 +1,165 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 02:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
+import zw.co.t3ratech.playlizt.content.dto.ContentResponse;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search result pages, weighed by their approximate size in memory. A content change
+ * only drops the pages that could list it: those filtered on its category before or after the change and
+ * those with no category filter. Other categories keep their entries.
+ * <p>
+ * View counts in cached pages are not refreshed until the entry is invalidated or expires, and changes
+ * made through other instances are only seen once entries expire.
+ */
+@Component
+@Slf4j
+public class ContentSearchCache {
+
+    private final SearchProperties searchProperties;
+    private final Cache<Key, Page<ContentResponse>> pages;
+    private final Counter invalidations;
+    // Bumped by every invalidation; a result computed across one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public ContentSearchCache(SearchProperties searchProperties, MeterRegistry meterRegistry) {
+        this.searchProperties = searchProperties;
+        SearchProperties.ResultCache config = searchProperties.getResultCache();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeightBytes())
+                .weigher(ContentSearchCache::weigh)
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "content.search");
+        this.invalidations = Counter.builder("content.search.cache.invalidations")
+                .description("Cached search pages dropped because content they could list changed")
+                .register(meterRegistry);
+    }
+
+    public Page<ContentResponse> get(Key key, Supplier<Page<ContentResponse>> search) {
+        if (!searchProperties.getResultCache().isEnabled()) {
+            return search.get();
+        }
+        Page<ContentResponse> cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation.get();
+        Page<ContentResponse> result = search.get();
+        if (generation.get() == started) {
+            pages.put(key, result);
+            // An invalidation between the check and the put may have swept the cache before the entry
+            // landed, so look again once it is visible and take back only what this call stored
+            if (generation.get() != started) {
+                pages.asMap().remove(key, result);
+            }
+        }
+        return result;
+    }
+
+    // Runs after the search index has applied the same change, so a recomputed page cannot miss it
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onContentChanged(ContentChangedEvent event) {
+        Set<String> categories = new HashSet<>();
+        if (event.getPreviousCategory() != null) {
+            categories.add(event.getPreviousCategory());
+        }
+        if (event.getContent() != null) {
+            String category = ContentChangedEvent.searchableCategory(event.getContent());
+            if (category != null) {
+                categories.add(category);
+            }
+        }
+        // Unpublished before and after: no search result could have listed it
+        if (categories.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        int before = pages.asMap().size();
+        pages.asMap().keySet().removeIf(key -> key.getCategory() == null || categories.contains(key.getCategory()));
+        int dropped = before - pages.asMap().size();
+        if (dropped > 0) {
+            invalidations.increment(dropped);
+            log.debug("Dropped {} cached search pages for content id={} in {}", dropped, event.getContentId(), categories);
+        }
+    }
+
+    /**
+     * Rough retained size of a page: a fixed allowance per object plus two bytes per character.
+     */
+    private static int weigh(Key key, Page<ContentResponse> page) {
+        long bytes = 256 + length(key.getQuery()) * 2L;
+        for (ContentResponse content : page.getContent()) {
+            bytes += 512;
+            bytes += 2L * (length(content.getTitle()) + length(content.getDescription())
+                    + length(content.getAiGeneratedDescription()) + length(content.getThumbnailUrl())
+                    + length(content.getVideoUrl()));
+            if (content.getTags() != null) {
+                for (String tag : content.getTags()) {
+                    bytes += 48 + 2L * length(tag);
+                }
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    /**
+     * Search parameters in normal form, so equivalent requests share an entry. Sort only matters without
+     * a query, since query results are ordered by relevance.
+     */
+    @Value
+    public static class Key {
+        String query;
+        String category;
+        Integer minDuration;
+        Integer maxDuration;
+        int page;
+        int size;
+        String sort;
+
+        public static Key of(String query, String category, Integer minDuration, Integer maxDuration, Pageable pageable) {
+            String normalizedQuery = query == null || query.isBlank()
+                    ? null
+                    : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            return new Key(normalizedQuery,
+                    category == null || category.isBlank() ? null : category.trim(),
+                    minDuration,
+                    maxDuration,
+                    pageable.getPageNumber(),
+                    pageable.getPageSize(),
+                    normalizedQuery == null ? pageable.getSort().toString() : null);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 01:02
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.service;
+
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
+import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
+import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
+import zw.co.t3ratech.playlizt.content.search.InvertedIndex;
+import zw.co.t3ratech.playlizt.content.search.SearchDocument;
+import zw.co.t3ratech.playlizt.content.search.SearchHits;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+/**
+ * Keeps the in-process {@link InvertedIndex} in step with published content. The index is rebuilt from
+ * the database on startup and then follows {@link ContentChangedEvent}s; until the first rebuild has
+ * finished {@link #isReady()} is false and searches are expected to go to the database.
+ * <p>
+ * Events only cover changes made through this instance, so the index is also rebuilt on an interval to
+ * pick up content created, published or enhanced elsewhere.
+ */
+@Service
+@Slf4j
+public class ContentSearchIndexService {
+
+    private final ContentRepository contentRepository;
+    private final SearchProperties searchProperties;
+    // Load queries block on the database, so they get their own pool rather than the common one
+    private final ForkJoinPool rebuildPool;
+    private final Object swapLock = new Object();
+    private volatile InvertedIndex index;
+    private volatile boolean ready;
+    // Changes committed while a rebuild is loading, replayed onto the new index before it is swapped in
+    private Map<Long, InvertedIndex.AnalyzedDocument> changedDuringRebuild;
+
+    public ContentSearchIndexService(ContentRepository contentRepository, SearchProperties searchProperties) {
+        this.contentRepository = contentRepository;
+        this.searchProperties = searchProperties;
+        this.rebuildPool = new ForkJoinPool(Math.max(1, searchProperties.getIndex().getRebuildParallelism()));
+        this.index = newIndex();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchHits search(String query, String category, Integer minDuration, Integer maxDuration, int offset, int limit) {
+        return index.search(query, category, minDuration, maxDuration, offset, limit);
+    }
+
+    // Ahead of the search result cache, which must not be refilled from the index before it has the change
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (!searchProperties.getIndex().isEnabled()) {
+            return;
+        }
+        Content content = event.getContent();
+        InvertedIndex.AnalyzedDocument document = content != null && Boolean.TRUE.equals(content.getIsPublished())
+                ? InvertedIndex.analyze(toDocument(content))
+                : null;
+        synchronized (swapLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(event.getContentId(), document);
+            }
+            if (document != null) {
+                index.put(document);
+            } else {
+                index.remove(event.getContentId());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (searchProperties.getIndex().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${content.search.index.rebuild-interval:PT10M}",
+            fixedDelayString = "${content.search.index.rebuild-interval:PT10M}")
+    public void rebuildPeriodically() {
+        if (searchProperties.getIndex().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Loads all published content into a fresh index, id ranges in parallel, and swaps it in. Searches keep
+     * using the previous index while this runs.
+     */
+    public void rebuild() {
+        synchronized (swapLock) {
+            if (changedDuringRebuild != null) {
+                log.info("Content search index rebuild already running");
+                return;
+            }
+            changedDuringRebuild = new LinkedHashMap<>();
+        }
+        try {
+            long started = System.nanoTime();
+            InvertedIndex rebuilt = rebuildPool.submit(this::load).join();
+            synchronized (swapLock) {
+                changedDuringRebuild.forEach((id, document) -> {
+                    if (document != null) {
+                        rebuilt.put(document);
+                    } else {
+                        rebuilt.remove(id);
+                    }
+                });
+                index = rebuilt;
+                ready = true;
+            }
+            log.info("Rebuilt content search index with {} documents in {} ms",
+                    rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild content search index, {}",
+                    ready ? "keeping the current one" : "searches stay on the database", e);
+        } finally {
+            synchronized (swapLock) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    private InvertedIndex load() {
+        InvertedIndex rebuilt = newIndex();
+        Long maxId = contentRepository.findMaxId();
+        if (maxId == null) {
+            return rebuilt;
+        }
+        long batchSize = Math.max(1, searchProperties.getIndex().getRebuildBatchSize());
+        List<InvertedIndex.AnalyzedDocument> documents = LongStream.range(0, (maxId + batchSize - 1) / batchSize)
+                .parallel()
+                .mapToObj(batch -> contentRepository.findPublishedInIdRange(batch * batchSize, (batch + 1) * batchSize))
+                .flatMap(List::stream)
+                .map(content -> InvertedIndex.analyze(toDocument(content)))
+                .toList();
+        documents.forEach(rebuilt::put);
+        return rebuilt;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildPool.shutdown();
+    }
+
+    private InvertedIndex newIndex() {
+        return new InvertedIndex(searchProperties.getIndex().getK1(), searchProperties.getIndex().getB());
+    }
+
+    private static SearchDocument toDocument(Content content) {
+        return SearchDocument.builder()
+                .id(content.getId())
+                .title(content.getTitle())
+                .description(content.getDescription())
+                .tags(content.getTags())
+                .aiGeneratedDescription(content.getAiGeneratedDescription())
+                .category(content.getCategory())
+                .durationSeconds(content.getDurationSeconds())
+                .createdAtMillis(content.getCreatedAt() == null ? 0
+                        : content.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+                .build();
+    }
+}
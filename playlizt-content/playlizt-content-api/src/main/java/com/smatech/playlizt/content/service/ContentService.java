@@ -11,10 +11,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import zw.co.t3ratech.playlizt.content.dto.ContentRequest;
 import zw.co.t3ratech.playlizt.content.dto.ContentResponse;
 import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
 import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
+import zw.co.t3ratech.playlizt.content.search.SearchHits;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +30,10 @@ import jakarta.persistence.criteria.Predicate;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +42,10 @@ public class ContentService {
 
     private final ContentRepository contentRepository;
     private final AsyncContentEnhancer asyncContentEnhancer;
+    private final ContentSearchIndexService contentSearchIndexService;
+    private final ContentSearchCache contentSearchCache;
+    private final ContentCache contentCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ContentResponse addContent(ContentRequest request) {
@@ -53,6 +66,7 @@ public class ContentService {
 
         content = contentRepository.save(content);
         log.info("Content added successfully: id={}", content.getId());
+        eventPublisher.publishEvent(ContentChangedEvent.saved(content, null));
 
         // Enhance with AI if requested (Async)
         if (Boolean.TRUE.equals(request.getEnhanceWithAi())) {
@@ -66,6 +80,7 @@ public class ContentService {
     public ContentResponse updateContent(Long id, ContentRequest request) {
         Content content = contentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Content not found"));
+        String previousCategory = ContentChangedEvent.searchableCategory(content);
 
         if (request.getVideoUrl() != null && !request.getVideoUrl().equals(content.getVideoUrl())) {
              validateVideoUrl(request.getVideoUrl());
@@ -80,6 +95,7 @@ public class ContentService {
         content.setDurationSeconds(request.getDurationSeconds());
 
         content = contentRepository.save(content);
+        eventPublisher.publishEvent(ContentChangedEvent.saved(content, previousCategory));
         return toResponse(content);
     }
     
@@ -94,9 +110,8 @@ public class ContentService {
     }
 
     public ContentResponse getContent(Long id) {
-        Content content = contentRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Content not found"));
-        return toResponse(content);
+        return contentCache.get(id, key -> toResponse(contentRepository.findById(key)
+                .orElseThrow(() -> new IllegalArgumentException("Content not found"))));
     }
 
     public Page<ContentResponse> getAllContent(Pageable pageable) {
@@ -104,25 +119,36 @@ public class ContentService {
                 .map(this::toResponse);
     }
 
+    /**
+     * With a query, matches are ranked by full-text relevance over title, tags, description and AI description
+     * and the requested sort is not applied; the in-process index answers once it is built, Postgres before
+     * that. Without a query, published content is filtered and sorted as requested.
+     */
     public Page<ContentResponse> searchContent(String query, String category, Integer minDuration, Integer maxDuration, Pageable pageable) {
+        return contentSearchCache.get(ContentSearchCache.Key.of(query, category, minDuration, maxDuration, pageable),
+                () -> findContent(query, category, minDuration, maxDuration, pageable));
+    }
+
+    private Page<ContentResponse> findContent(String query, String category, Integer minDuration, Integer maxDuration, Pageable pageable) {
+        String categoryFilter = category != null && !category.trim().isEmpty() ? category.trim() : null;
+        if (query != null && !query.trim().isEmpty()) {
+            Pageable ranked = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            if (contentSearchIndexService.isReady()) {
+                return searchIndex(query.trim(), categoryFilter, minDuration, maxDuration, ranked);
+            }
+            return contentRepository.searchContent(query.trim(), categoryFilter, minDuration, maxDuration, ranked)
+                    .map(this::toResponse);
+        }
+
         Specification<Content> spec = (root, queryObj, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             // Published only
             predicates.add(cb.isTrue(root.get("isPublished")));
             
-            // Query (Title or Description)
-            if (query != null && !query.trim().isEmpty()) {
-                String likePattern = "%" + query.toLowerCase() + "%";
-                predicates.add(cb.or(
-                    cb.like(cb.lower(root.get("title")), likePattern),
-                    cb.like(cb.lower(root.get("description")), likePattern)
-                ));
-            }
-            
             // Category
-            if (category != null && !category.trim().isEmpty()) {
-                predicates.add(cb.equal(root.get("category"), category));
+            if (categoryFilter != null) {
+                predicates.add(cb.equal(root.get("category"), categoryFilter));
             }
             
             // Duration
@@ -140,6 +166,23 @@ public class ContentService {
                 .map(this::toResponse);
     }
 
+    private Page<ContentResponse> searchIndex(String query, String category, Integer minDuration, Integer maxDuration, Pageable ranked) {
+        SearchHits hits = contentSearchIndexService.search(query, category, minDuration, maxDuration,
+                (int) Math.min(ranked.getOffset(), Integer.MAX_VALUE), ranked.getPageSize());
+        if (hits.getIds().isEmpty()) {
+            return new PageImpl<>(List.of(), ranked, hits.getTotalHits());
+        }
+        Map<Long, Content> found = contentRepository.findAllById(hits.getIds()).stream()
+                .collect(Collectors.toMap(Content::getId, Function.identity()));
+        // Keep the index's rank order; an id deleted since the lookup is simply left out
+        List<ContentResponse> results = hits.getIds().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(this::toResponse)
+                .toList();
+        return new PageImpl<>(results, ranked, hits.getTotalHits());
+    }
+
     public List<String> getAllCategories() {
         return contentRepository.findAllCategories();
     }
@@ -152,15 +195,20 @@ public class ContentService {
 
     @Transactional
     public void deleteContent(Long id) {
-        contentRepository.deleteById(id);
+        contentRepository.findById(id).ifPresent(content -> {
+            contentRepository.delete(content);
+            eventPublisher.publishEvent(ContentChangedEvent.deleted(id, ContentChangedEvent.searchableCategory(content)));
+        });
     }
 
     @Transactional
     public void publishContent(Long id) {
         Content content = contentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Content not found"));
+        String previousCategory = ContentChangedEvent.searchableCategory(content);
         content.setIsPublished(true);
-        contentRepository.save(content);
+        content = contentRepository.save(content);
+        eventPublisher.publishEvent(ContentChangedEvent.saved(content, previousCategory));
     }
 
     private ContentResponse toResponse(Content content) {
@@ -0,0 +1,198 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 02:10
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.content.service;
+
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
+import zw.co.t3ratech.playlizt.content.dto.SuggestionResponse;
+import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
+import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
+import zw.co.t3ratech.playlizt.content.search.Suggestion;
+import zw.co.t3ratech.playlizt.content.search.SuggestionTrie;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead over published titles and tags, weighted by view count. Lookups only read the current
+ * {@link SuggestionTrie}; content changes update the source entries here and a new trie is built from
+ * them on the next rebuild tick and swapped in whole.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContentSuggestionService {
+
+    private final ContentRepository contentRepository;
+    private final SearchProperties searchProperties;
+    private final Object sourceLock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+    // Published content by id, guarded by sourceLock
+    private Map<Long, Source> sources = new HashMap<>();
+    // Changes committed while a reload is reading the database, replayed over what it read
+    private Map<Long, Source> changedDuringReload;
+    private boolean dirty;
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        int max = Math.min(limit, searchProperties.getSuggest().getMaxSuggestions());
+        return trie.lookup(prefix, max).stream()
+                .map(suggestion -> SuggestionResponse.builder()
+                        .text(suggestion.getText())
+                        .type(suggestion.getType().name())
+                        .contentId(suggestion.getContentId())
+                        .build())
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        Content content = event.getContent();
+        Source source = content != null && Boolean.TRUE.equals(content.getIsPublished())
+                ? new Source(content.getTitle(), content.getTags() == null ? List.of() : List.copyOf(content.getTags()),
+                        content.getViewCount() == null ? 0 : content.getViewCount())
+                : null;
+        synchronized (sourceLock) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(event.getContentId(), source);
+            }
+            apply(sources, event.getContentId(), source);
+            dirty = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+        rebuildIfChanged();
+    }
+
+    /**
+     * Re-reads published titles, tags and view counts from the database, picking up views counted since
+     * the last reload.
+     */
+    @Scheduled(initialDelayString = "${content.search.suggest.refresh-interval:PT10M}",
+            fixedDelayString = "${content.search.suggest.refresh-interval:PT10M}")
+    public void reload() {
+        synchronized (sourceLock) {
+            if (changedDuringReload != null) {
+                return;
+            }
+            changedDuringReload = new LinkedHashMap<>();
+        }
+        try {
+            Map<Long, Source> loaded = new HashMap<>();
+            for (Object[] row : contentRepository.findPublishedTitles()) {
+                Long viewCount = (Long) row[2];
+                loaded.put((Long) row[0], new Source((String) row[1], new ArrayList<>(), viewCount == null ? 0 : viewCount));
+            }
+            for (Object[] row : contentRepository.findPublishedTags()) {
+                Source source = loaded.get((Long) row[0]);
+                if (source != null && row[1] != null) {
+                    source.getTags().add((String) row[1]);
+                }
+            }
+            synchronized (sourceLock) {
+                changedDuringReload.forEach((id, source) -> apply(loaded, id, source));
+                sources = loaded;
+                dirty = true;
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reload content suggestions, keeping the current ones", e);
+        } finally {
+            synchronized (sourceLock) {
+                changedDuringReload = null;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${content.search.suggest.rebuild-interval:PT5S}")
+    public void rebuildIfChanged() {
+        synchronized (rebuildLock) {
+            List<Suggestion> suggestions;
+            synchronized (sourceLock) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                suggestions = toSuggestions(sources);
+            }
+            long started = System.nanoTime();
+            SearchProperties.Suggest config = searchProperties.getSuggest();
+            trie = SuggestionTrie.build(suggestions, config.getMaxSuggestions(), config.getMaxTitleWords());
+            log.debug("Rebuilt suggestion trie with {} suggestions in {} ms",
+                    suggestions.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private static void apply(Map<Long, Source> target, Long id, Source source) {
+        if (source != null) {
+            target.put(id, source);
+        } else {
+            target.remove(id);
+        }
+    }
+
+    /**
+     * One suggestion per distinct title, pointing at its most viewed content, and one per distinct tag,
+     * weighted by the views of all content carrying it.
+     */
+    private static List<Suggestion> toSuggestions(Map<Long, Source> sources) {
+        Map<String, Suggestion> titles = new HashMap<>();
+        Map<String, Suggestion> tags = new HashMap<>();
+        sources.forEach((id, source) -> {
+            String title = SuggestionTrie.normalize(source.getTitle());
+            if (!title.isEmpty()) {
+                titles.merge(title, Suggestion.builder()
+                                .text(source.getTitle())
+                                .type(Suggestion.Type.TITLE)
+                                .contentId(id)
+                                .weight(source.getViewCount())
+                                .build(),
+                        (existing, candidate) -> candidate.getWeight() > existing.getWeight() ? candidate : existing);
+            }
+            for (String tag : source.getTags()) {
+                String key = SuggestionTrie.normalize(tag);
+                if (!key.isEmpty()) {
+                    tags.merge(key, Suggestion.builder()
+                                    .text(tag)
+                                    .type(Suggestion.Type.TAG)
+                                    .weight(source.getViewCount())
+                                    .build(),
+                            (existing, added) -> Suggestion.builder()
+                                    .text(existing.getText())
+                                    .type(Suggestion.Type.TAG)
+                                    .weight(existing.getWeight() + added.getWeight())
+                                    .build());
+                }
+            }
+        });
+        List<Suggestion> suggestions = new ArrayList<>(titles.size() + tags.size());
+        suggestions.addAll(titles.values());
+        suggestions.addAll(tags.values());
+        return suggestions;
+    }
+
+    @Value
+    private static class Source {
+        String title;
+        List<String> tags;
+        long viewCount;
+    }
+}
@@ -0,0 +1,57 @@
+-- Postgres-only DDL that JPA annotations cannot express. Runs after Hibernate has created the tables and loaded
+-- import.sql. Statements end with ";;" (spring.sql.init.separator) because the function bodies contain ";".
+
+-- Full-text search document: title (A), tags (B), description (C) and AI description (D). Kept current by the
+-- triggers below rather than mapped on the entity, so JPA never reads or writes it.
+ALTER TABLE playlizt_content.content ADD COLUMN IF NOT EXISTS search_vector tsvector;;
+
+CREATE OR REPLACE FUNCTION playlizt_content.content_search_document(
+    p_id BIGINT, p_title TEXT, p_description TEXT, p_ai_description TEXT) RETURNS tsvector
+LANGUAGE sql STABLE AS $$
+    SELECT setweight(to_tsvector('english', coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(
+               (SELECT string_agg(tag, ' ') FROM playlizt_content.content_tags WHERE content_id = p_id), '')), 'B')
+        || setweight(to_tsvector('english', coalesce(p_description, '')), 'C')
+        || setweight(to_tsvector('english', coalesce(p_ai_description, '')), 'D')
+$$;;
+
+CREATE OR REPLACE FUNCTION playlizt_content.content_search_vector_refresh() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := playlizt_content.content_search_document(
+        NEW.id, NEW.title, NEW.description, NEW.ai_generated_description);
+    RETURN NEW;
+END
+$$;;
+
+DROP TRIGGER IF EXISTS trg_content_search_vector ON playlizt_content.content;;
+
+CREATE TRIGGER trg_content_search_vector
+    BEFORE INSERT OR UPDATE OF title, description, ai_generated_description ON playlizt_content.content
+    FOR EACH ROW EXECUTE FUNCTION playlizt_content.content_search_vector_refresh();;
+
+-- Hibernate rewrites a content item's tags as delete + insert, so each changed row re-derives the document
+CREATE OR REPLACE FUNCTION playlizt_content.content_tags_search_vector_refresh() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_content_id BIGINT := CASE WHEN TG_OP = 'DELETE' THEN OLD.content_id ELSE NEW.content_id END;
+BEGIN
+    UPDATE playlizt_content.content c
+    SET search_vector = playlizt_content.content_search_document(c.id, c.title, c.description, c.ai_generated_description)
+    WHERE c.id = v_content_id;
+    RETURN NULL;
+END
+$$;;
+
+DROP TRIGGER IF EXISTS trg_content_tags_search_vector ON playlizt_content.content_tags;;
+
+CREATE TRIGGER trg_content_tags_search_vector
+    AFTER INSERT OR UPDATE OR DELETE ON playlizt_content.content_tags
+    FOR EACH ROW EXECUTE FUNCTION playlizt_content.content_tags_search_vector_refresh();;
+
+-- Rows loaded by import.sql predate the triggers
+UPDATE playlizt_content.content c
+SET search_vector = playlizt_content.content_search_document(c.id, c.title, c.description, c.ai_generated_description)
+WHERE c.search_vector IS NULL;;
+
+CREATE INDEX IF NOT EXISTS idx_content_search ON playlizt_content.content USING GIN (search_vector);;
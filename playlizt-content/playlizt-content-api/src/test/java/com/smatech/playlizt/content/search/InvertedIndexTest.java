@@ -0,0 +1,83 @@
+package zw.co.t3ratech.playlizt.content.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(1.2, 0.75);
+        index.put(document(1, "Learning Java Streams", "A tour of the streams API", List.of("java"), "EDUCATION", 600, 1));
+        index.put(document(2, "Cooking pasta at home", "Quick weeknight dinners, with some java coffee", List.of("food"), "LIFESTYLE", 300, 2));
+        index.put(document(3, "Java concurrency in practice", "Threads, locks and executors", List.of("java", "threads"), "EDUCATION", 1800, 3));
+    }
+
+    @Test
+    void search_shouldRankTitleAndTagMatchesAboveDescriptionMatches() {
+        SearchHits hits = index.search("java", null, null, null, 0, 10);
+
+        assertEquals(3, hits.getTotalHits());
+        assertEquals(2L, hits.getIds().get(2));
+    }
+
+    @Test
+    void search_shouldRequireEveryTermAndHonourExclusions() {
+        assertEquals(List.of(3L), index.search("java threads", null, null, null, 0, 10).getIds());
+        assertEquals(List.of(1L), index.search("java stream", null, null, null, 0, 10).getIds());
+        assertFalse(index.search("java -coffee", null, null, null, 0, 10).getIds().contains(2L));
+        assertEquals(SearchHits.EMPTY, index.search("the and", null, null, null, 0, 10));
+    }
+
+    @Test
+    void search_shouldApplyCategoryAndDurationFilters() {
+        assertEquals(2, index.search("java", "EDUCATION", null, null, 0, 10).getTotalHits());
+        assertEquals(List.of(1L), index.search("java", "EDUCATION", null, 900, 0, 10).getIds());
+        assertEquals(List.of(3L), index.search("java", null, 900, null, 0, 10).getIds());
+    }
+
+    @Test
+    void search_shouldPageThroughRankedHits() {
+        List<Long> all = index.search("java", null, null, null, 0, 10).getIds();
+
+        SearchHits second = index.search("java", null, null, null, 1, 1);
+
+        assertEquals(3, second.getTotalHits());
+        assertEquals(List.of(all.get(1)), second.getIds());
+        assertTrue(index.search("java", null, null, null, 5, 10).getIds().isEmpty());
+    }
+
+    @Test
+    void put_shouldReplaceAndRemoveShouldDropDocuments() {
+        index.put(document(1, "Learning Kotlin", "Coroutines", List.of("kotlin"), "EDUCATION", 600, 1));
+        index.remove(3);
+
+        assertEquals(List.of(2L), index.search("java", null, null, null, 0, 10).getIds());
+        assertEquals(List.of(1L), index.search("kotlin", null, null, null, 0, 10).getIds());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void analyze_shouldFoldCaseAccentsAndPlurals() {
+        assertEquals(List.of("cafe", "video", "dont", "stop"), TextAnalyzer.analyze("Caf\u00e9 VIDEOS -- don't stop!"));
+    }
+
+    private static SearchDocument document(long id, String title, String description, List<String> tags,
+                                           String category, int durationSeconds, long createdAtMillis) {
+        return SearchDocument.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .tags(tags)
+                .category(category)
+                .durationSeconds(durationSeconds)
+                .createdAtMillis(createdAtMillis)
+                .build();
+    }
+}
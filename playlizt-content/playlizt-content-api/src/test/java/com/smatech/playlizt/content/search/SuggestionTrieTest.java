@@ -0,0 +1,56 @@
+package zw.co.t3ratech.playlizt.content.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.build(List.of(
+            title("The Matrix", 1L, 500),
+            title("Matrix Reloaded", 2L, 200),
+            title("Mathematics for Kids", 3L, 900),
+            Suggestion.builder().text("math").type(Suggestion.Type.TAG).weight(50).build()), 10, 8);
+
+    @Test
+    void lookup_shouldReturnMatchesMostViewedFirst() {
+        assertEquals(List.of("Mathematics for Kids", "The Matrix", "Matrix Reloaded", "math"), texts(trie.lookup("ma", 10)));
+        assertEquals(List.of("The Matrix", "Matrix Reloaded"), texts(trie.lookup("matr", 10)));
+    }
+
+    @Test
+    void lookup_shouldMatchFromAnyTitleWordIgnoringCaseAndPunctuation() {
+        assertEquals(List.of("Matrix Reloaded"), texts(trie.lookup("MATRIX  re", 10)));
+        assertEquals(List.of("The Matrix"), texts(trie.lookup("the-m", 10)));
+        assertEquals(List.of("Mathematics for Kids"), texts(trie.lookup("kids", 10)));
+        assertEquals(3L, trie.lookup("kid", 10).get(0).getContentId());
+    }
+
+    @Test
+    void lookup_shouldHonourLimitAndUnknownPrefixes() {
+        assertEquals(List.of("Mathematics for Kids"), texts(trie.lookup("m", 1)));
+        assertTrue(trie.lookup("matrices", 10).isEmpty());
+        assertTrue(trie.lookup("   ", 10).isEmpty());
+        assertTrue(SuggestionTrie.EMPTY.lookup("m", 10).isEmpty());
+    }
+
+    @Test
+    void build_shouldKeepOnlyTopSuggestionsPerNode() {
+        SuggestionTrie small = SuggestionTrie.build(List.of(
+                title("Alpha one", 1L, 1),
+                title("Alpha two", 2L, 3),
+                title("Alpha three", 3L, 2)), 2, 8);
+
+        assertEquals(List.of("Alpha two", "Alpha three"), texts(small.lookup("alpha", 10)));
+    }
+
+    private static Suggestion title(String text, Long contentId, long weight) {
+        return Suggestion.builder().text(text).type(Suggestion.Type.TITLE).contentId(contentId).weight(weight).build();
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+}
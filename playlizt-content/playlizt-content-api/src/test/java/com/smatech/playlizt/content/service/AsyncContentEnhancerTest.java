@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
 import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -28,6 +30,9 @@ class AsyncContentEnhancerTest {
     @Mock
     private ContentRepository contentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AsyncContentEnhancer asyncContentEnhancer;
 
@@ -58,10 +63,12 @@ class AsyncContentEnhancerTest {
         json.put("sentiment", "INSPIRING");
         
         when(geminiAiService.parseEnhancedMetadata("raw json")).thenReturn(json);
+        when(contentRepository.save(content)).thenReturn(content);
         
         asyncContentEnhancer.enhanceContent(content);
         
         verify(contentRepository).save(content);
+        verify(eventPublisher).publishEvent(ContentChangedEvent.saved(content, null));
         assertEquals("Better Desc", content.getAiGeneratedDescription());
         assertEquals("TECH", content.getAiPredictedCategory());
         assertTrue(content.getTags().contains("AI"));
@@ -0,0 +1,97 @@
+package zw.co.t3ratech.playlizt.content.service;
+
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
+import zw.co.t3ratech.playlizt.content.dto.ContentResponse;
+import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentSearchCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger searches = new AtomicInteger();
+    private ContentSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ContentSearchCache(new SearchProperties(), meterRegistry);
+    }
+
+    @Test
+    void get_shouldShareEntriesBetweenEquivalentRequests() {
+        search("  Jazz   Live ", "MUSIC");
+        search("jazz live", "MUSIC");
+        search("jazz live", "NEWS");
+
+        assertEquals(2, searches.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "content.search").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "content.search").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void onContentChanged_shouldDropOnlyPagesThatCouldListTheContent() {
+        search("jazz", "MUSIC");
+        search("jazz", "NEWS");
+        search("jazz", null);
+        search("jazz", "SPORTS");
+
+        // Moved from NEWS to MUSIC: both categories and unfiltered pages are affected, SPORTS is not
+        cache.onContentChanged(ContentChangedEvent.saved(content("MUSIC", true), "NEWS"));
+        searches.set(0);
+        search("jazz", "MUSIC");
+        search("jazz", "NEWS");
+        search("jazz", null);
+        search("jazz", "SPORTS");
+
+        assertEquals(3, searches.get());
+        assertEquals(3.0, meterRegistry.get("content.search.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void onContentChanged_shouldIgnoreContentThatWasNeverSearchable() {
+        search("jazz", "MUSIC");
+
+        cache.onContentChanged(ContentChangedEvent.saved(content("MUSIC", false), null));
+        search("jazz", "MUSIC");
+
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    void get_shouldNotCacheResultComputedAcrossAnInvalidation() {
+        ContentSearchCache.Key key = ContentSearchCache.Key.of("jazz", "MUSIC", null, null, PageRequest.of(0, 20));
+        cache.get(key, () -> {
+            cache.onContentChanged(ContentChangedEvent.deleted(5L, "MUSIC"));
+            return page();
+        });
+
+        search("jazz", "MUSIC");
+
+        assertEquals(1, searches.get());
+    }
+
+    private void search(String query, String category) {
+        cache.get(ContentSearchCache.Key.of(query, category, null, null, PageRequest.of(0, 20)), () -> {
+            searches.incrementAndGet();
+            return page();
+        });
+    }
+
+    private static Page<ContentResponse> page() {
+        return new PageImpl<>(List.of(ContentResponse.builder().id(1L).title("Jazz Live").build()));
+    }
+
+    private static Content content(String category, boolean published) {
+        return Content.builder().id(5L).title("Jazz Live").category(category).isPublished(published).build();
+    }
+}
@@ -0,0 +1,59 @@
+package zw.co.t3ratech.playlizt.content.service;
+
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
+import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentSearchIndexServiceTest {
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    private ContentSearchIndexService contentSearchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        contentSearchIndexService = new ContentSearchIndexService(contentRepository, new SearchProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        contentSearchIndexService.shutdown();
+    }
+
+    @Test
+    void rebuildPeriodically_shouldPickUpContentPublishedThroughAnotherInstance() {
+        when(contentRepository.findMaxId()).thenReturn(1L);
+        when(contentRepository.findPublishedInIdRange(anyLong(), anyLong())).thenReturn(List.of(content(1L, "Night Sky")));
+        contentSearchIndexService.rebuildOnStartup();
+
+        assertTrue(contentSearchIndexService.isReady());
+        assertEquals(0, contentSearchIndexService.search("comet", null, null, null, 0, 10).getTotalHits());
+
+        // Published elsewhere: no ContentChangedEvent reaches this instance
+        when(contentRepository.findMaxId()).thenReturn(2L);
+        when(contentRepository.findPublishedInIdRange(anyLong(), anyLong()))
+                .thenReturn(List.of(content(1L, "Night Sky"), content(2L, "Comet Hunters")));
+        contentSearchIndexService.rebuildPeriodically();
+
+        assertEquals(List.of(2L), contentSearchIndexService.search("comet", null, null, null, 0, 10).getIds());
+        assertEquals(1, contentSearchIndexService.search("night", null, null, null, 0, 10).getTotalHits());
+    }
+
+    private static Content content(Long id, String title) {
+        return Content.builder().id(id).title(title).tags(List.of()).isPublished(true).build();
+    }
+}
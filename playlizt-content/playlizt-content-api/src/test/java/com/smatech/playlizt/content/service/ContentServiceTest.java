@@ -1,25 +1,38 @@
 package zw.co.t3ratech.playlizt.content.service;
 
+import zw.co.t3ratech.playlizt.content.config.ContentCacheProperties;
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
 import zw.co.t3ratech.playlizt.content.dto.ContentRequest;
 import zw.co.t3ratech.playlizt.content.dto.ContentResponse;
 import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
 import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
+import zw.co.t3ratech.playlizt.content.search.SearchHits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +44,18 @@ class ContentServiceTest {
     @Mock
     private AsyncContentEnhancer asyncContentEnhancer;
 
+    @Mock
+    private ContentSearchIndexService contentSearchIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ContentSearchCache contentSearchCache = new ContentSearchCache(new SearchProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private ContentCache contentCache = new ContentCache(new ContentCacheProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private ContentService contentService;
 
@@ -51,18 +76,53 @@ class ContentServiceTest {
 
     @Test
     void searchContent_shouldReturnResults() {
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<Content> page = new PageImpl<>(List.of(content));
 
-        when(contentRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        // Ranked full-text query: the requested sort is dropped in favour of relevance
+        when(contentRepository.searchContent("Test", "ENTERTAINMENT", null, null, PageRequest.of(0, 10))).thenReturn(page);
 
-        Page<ContentResponse> result = contentService.searchContent("Test", "ENTERTAINMENT", null, null, pageable);
+        Page<ContentResponse> result = contentService.searchContent("  Test ", "ENTERTAINMENT", null, null, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals("Test Video", result.getContent().get(0).getTitle());
     }
 
+    @Test
+    void searchContent_withIndexReady_shouldReturnIndexRankOrder() {
+        Content other = Content.builder()
+                .id(2L)
+                .title("Test Other")
+                .category("ENTERTAINMENT")
+                .isPublished(true)
+                .build();
+
+        when(contentSearchIndexService.isReady()).thenReturn(true);
+        when(contentSearchIndexService.search("Test", "ENTERTAINMENT", 60, null, 10, 10))
+                .thenReturn(new SearchHits(12, List.of(2L, 1L)));
+        when(contentRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(content, other));
+
+        Page<ContentResponse> result = contentService.searchContent("Test", "ENTERTAINMENT", 60, null, PageRequest.of(1, 10));
+
+        assertEquals(12, result.getTotalElements());
+        assertEquals(List.of(2L, 1L), result.getContent().stream().map(ContentResponse::getId).toList());
+        verify(contentRepository, never()).searchContent(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchContent_withoutQuery_shouldFilterWithSpecification() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<Content> page = new PageImpl<>(List.of(content));
+
+        when(contentRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+
+        Page<ContentResponse> result = contentService.searchContent("", "ENTERTAINMENT", 10, 600, pageable);
+
+        assertEquals(1, result.getContent().size());
+        verify(contentRepository, never()).searchContent(any(), any(), any(), any(), any());
+    }
+
     @Test
     void getAllContent_shouldReturnPublishedContent() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -95,5 +155,50 @@ class ContentServiceTest {
         when(contentRepository.save(any(Content.class))).thenReturn(content);
         
         assertDoesNotThrow(() -> contentService.addContent(request));
+        verify(eventPublisher).publishEvent(ContentChangedEvent.saved(content, null));
+    }
+
+    @Test
+    void deleteContent_shouldPublishDeletion() {
+        when(contentRepository.findById(1L)).thenReturn(Optional.of(content));
+
+        contentService.deleteContent(1L);
+
+        verify(contentRepository).delete(content);
+        verify(eventPublisher).publishEvent(ContentChangedEvent.deleted(1L, "ENTERTAINMENT"));
+    }
+
+    @Test
+    void searchContent_shouldServeRepeatedQueriesFromCache() {
+        Page<Content> page = new PageImpl<>(List.of(content));
+        when(contentRepository.searchContent("test", "ENTERTAINMENT", null, null, PageRequest.of(0, 10))).thenReturn(page);
+
+        contentService.searchContent("test", "ENTERTAINMENT", null, null, PageRequest.of(0, 10));
+        Page<ContentResponse> repeated = contentService.searchContent(" TEST ", "ENTERTAINMENT", null, null, PageRequest.of(0, 10));
+
+        assertEquals("Test Video", repeated.getContent().get(0).getTitle());
+        verify(contentRepository, times(1)).searchContent(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getContent_shouldReadThroughCacheUntilContentChanges() {
+        when(contentRepository.findById(1L)).thenReturn(Optional.of(content));
+
+        contentService.getContent(1L);
+        ContentResponse cached = contentService.getContent(1L);
+        contentCache.onContentChanged(ContentChangedEvent.saved(content, "ENTERTAINMENT"));
+        contentService.getContent(1L);
+
+        assertEquals("Test Video", cached.getTitle());
+        verify(contentRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getContent_shouldNotCacheMissingContent() {
+        when(contentRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> contentService.getContent(9L));
+        assertThrows(IllegalArgumentException.class, () -> contentService.getContent(9L));
+        verify(contentRepository, times(2)).findById(9L);
     }
 }
@@ -0,0 +1,72 @@
+package zw.co.t3ratech.playlizt.content.service;
+
+import zw.co.t3ratech.playlizt.content.config.SearchProperties;
+import zw.co.t3ratech.playlizt.content.dto.SuggestionResponse;
+import zw.co.t3ratech.playlizt.content.entity.Content;
+import zw.co.t3ratech.playlizt.content.model.ContentChangedEvent;
+import zw.co.t3ratech.playlizt.content.repository.ContentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentSuggestionServiceTest {
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    private ContentSuggestionService contentSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        contentSuggestionService = new ContentSuggestionService(contentRepository, new SearchProperties());
+    }
+
+    @Test
+    void loadOnStartup_shouldSuggestPublishedTitlesAndTagsByViews() {
+        when(contentRepository.findPublishedTitles()).thenReturn(List.of(
+                new Object[]{1L, "Cooking Basics", 40L},
+                new Object[]{2L, "Cooking for Two", 90L}));
+        when(contentRepository.findPublishedTags()).thenReturn(List.of(
+                new Object[]{1L, "cooking"},
+                new Object[]{2L, "Cooking"}));
+
+        contentSuggestionService.loadOnStartup();
+
+        List<SuggestionResponse> suggestions = contentSuggestionService.suggest("cook", 10);
+        // The tag is carried by both items, so it outweighs either title
+        assertEquals(List.of("cooking", "Cooking for Two", "Cooking Basics"),
+                suggestions.stream().map(SuggestionResponse::getText).toList());
+        assertEquals("TAG", suggestions.get(0).getType());
+        assertEquals(2L, suggestions.get(1).getContentId());
+    }
+
+    @Test
+    void onContentChanged_shouldApplyOnNextRebuild() {
+        Content published = Content.builder()
+                .id(7L)
+                .title("Night Sky")
+                .tags(List.of("astronomy"))
+                .isPublished(true)
+                .viewCount(3L)
+                .build();
+
+        contentSuggestionService.onContentChanged(ContentChangedEvent.saved(published, null));
+        assertTrue(contentSuggestionService.suggest("night", 10).isEmpty());
+
+        contentSuggestionService.rebuildIfChanged();
+        assertEquals(7L, contentSuggestionService.suggest("sky", 10).get(0).getContentId());
+        assertEquals("astronomy", contentSuggestionService.suggest("astro", 10).get(0).getText());
+
+        contentSuggestionService.onContentChanged(ContentChangedEvent.deleted(7L, null));
+        contentSuggestionService.rebuildIfChanged();
+        assertTrue(contentSuggestionService.suggest("night", 10).isEmpty());
+    }
+}
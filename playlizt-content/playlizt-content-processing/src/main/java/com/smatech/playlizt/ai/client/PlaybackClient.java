@@ -7,13 +7,14 @@
  */
 package zw.co.t3ratech.playlizt.ai.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(name = "playlizt-playback", path = "/api/v1/playback")
 public interface PlaybackClient {
-    @GetMapping("/history")
-    JsonNode getViewingHistory(@RequestParam("userId") Long userId);
+    // Portable 64-bit Roaring bitmap of every content id the user has watched
+    @GetMapping(value = "/history/ids", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    byte[] getWatchedContentIds(@RequestParam("userId") Long userId);
 }
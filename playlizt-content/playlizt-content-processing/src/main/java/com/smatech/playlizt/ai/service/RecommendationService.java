@@ -14,8 +14,12 @@ import zw.co.t3ratech.playlizt.ai.client.PlaybackClient;
 import zw.co.t3ratech.playlizt.ai.dto.ContentResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.*;
 
 @Service
@@ -28,26 +32,16 @@ public class RecommendationService {
     private final ObjectMapper objectMapper;
 
     public List<ContentResponse> getRecommendations(Long userId) {
-        // 1. Get Viewing History (defensive against downstream failures)
-        JsonNode historyPage;
+        // 1. Get the full watched set (defensive against downstream failures)
+        Roaring64NavigableMap watchedContentIds;
         try {
-            historyPage = playbackClient.getViewingHistory(userId);
+            watchedContentIds = readBitmap(playbackClient.getWatchedContentIds(userId));
         } catch (Exception e) {
-            log.error("Failed to fetch viewing history for user {}. Returning empty recommendations.", userId, e);
+            log.error("Failed to fetch watched content for user {}. Returning empty recommendations.", userId, e);
             return Collections.emptyList();
         }
 
-        Set<Long> watchedContentIds = new HashSet<>();
-
-        if (historyPage != null && historyPage.has("content")) {
-            historyPage.get("content").forEach(node -> {
-                if (node.has("contentId")) {
-                    watchedContentIds.add(node.get("contentId").asLong());
-                }
-            });
-        }
-
-        int uniqueWatched = watchedContentIds.size();
+        long uniqueWatched = watchedContentIds.getLongCardinality();
         log.info("RecommendationService: userId={}, uniqueWatched={}", userId, uniqueWatched);
 
         // Requirement: Recommendations only display after the user has watched
@@ -87,7 +81,7 @@ public class RecommendationService {
                 ContentResponse[] contents = objectMapper.readValue(json, ContentResponse[].class);
                 
                 for (ContentResponse c : contents) {
-                    if (!watchedContentIds.contains(c.getId())) {
+                    if (c.getId() == null || !watchedContentIds.contains(c.getId())) {
                         recommendations.add(c);
                     }
                 }
@@ -99,4 +93,12 @@ public class RecommendationService {
         
         return recommendations;
     }
+
+    private static Roaring64NavigableMap readBitmap(byte[] bytes) throws IOException {
+        Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+        if (bytes != null && bytes.length > 0) {
+            bitmap.deserializePortable(new DataInputStream(new ByteArrayInputStream(bytes)));
+        }
+        return bitmap;
+    }
 }
@@ -0,0 +1,150 @@
+package zw.co.t3ratech.playlizt.ai.benchmark;
+
+import zw.co.t3ratech.playlizt.ai.AiServiceApplication;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Thread-per-request throughput of /api/v1/ai/recommendations when every downstream call is slow.
+ * Each request makes three Feign calls to a stub that answers after {@link #DOWNSTREAM_LATENCY}, and
+ * Tomcat is capped at {@link #TOMCAT_MAX_THREADS}, so platform threads saturate long before CPU does.
+ * Run with {@code ./gradlew :playlizt-content:playlizt-content-processing:benchmark}.
+ */
+@Tag("benchmark")
+class RecommendationThroughputBenchmark {
+
+    private static final Duration DOWNSTREAM_LATENCY = Duration.ofMillis(100);
+    private static final int TOMCAT_MAX_THREADS = 20;
+    private static final int CONCURRENT_CLIENTS = 200;
+    private static final int REQUESTS = 2_000;
+
+    private static HttpServer downstream;
+
+    @BeforeAll
+    static void startDownstream() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        byte[] watched = watchedBitmap(1L, 2L);
+        downstream.createContext("/api/v1/playback/history/ids",
+                exchange -> respondSlowly(exchange, "application/octet-stream", watched));
+        downstream.createContext("/api/v1/content/categories",
+                exchange -> respondSlowly(exchange, "[\"Music\"]".getBytes(StandardCharsets.UTF_8)));
+        downstream.createContext("/api/v1/content/search",
+                exchange -> respondSlowly(exchange, "{\"content\":[{\"id\":3,\"title\":\"Unwatched\"}]}".getBytes(StandardCharsets.UTF_8)));
+        downstream.start();
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.stop(0);
+    }
+
+    @Test
+    void compareThroughputOfPlatformAndVirtualRequestThreads() throws Exception {
+        double platform = measure(false);
+        double virtual = measure(true);
+
+        System.out.printf("Recommendations with %d ms downstream latency, %d Tomcat threads, %d clients:%n",
+                DOWNSTREAM_LATENCY.toMillis(), TOMCAT_MAX_THREADS, CONCURRENT_CLIENTS);
+        System.out.printf("  platform threads: %8.1f req/s%n", platform);
+        System.out.printf("  virtual threads:  %8.1f req/s (%.1fx)%n", virtual, virtual / platform);
+
+        assertTrue(virtual > platform, "virtual threads should not be capped by the Tomcat pool size");
+    }
+
+    private static double measure(boolean virtualThreads) throws Exception {
+        String stub = "http://localhost:" + downstream.getAddress().getPort();
+        // Command-line arguments, because default properties lose to the placeholders in application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AiServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--eureka.client.enabled=false",
+                        "--eureka.client.service-url.defaultZone=http://localhost:0/eureka",
+                        "--spring.cloud.openfeign.client.config.playlizt-playback.url=" + stub,
+                        "--spring.cloud.openfeign.client.config.playlizt-content-api.url=" + stub,
+                        "--gemini.api.key=benchmark",
+                        "--logging.file.name=",
+                        "--logging.level.zw.co.t3ratech.playlizt=WARN")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/ai/recommendations?userId=1");
+
+            // Warm up class loading and connection pools before timing
+            fire(uri, CONCURRENT_CLIENTS);
+            long started = System.nanoTime();
+            fire(uri, REQUESTS);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            return REQUESTS / seconds;
+        }
+    }
+
+    private static void fire(URI uri, int requests) throws Exception {
+        Semaphore inFlight = new Semaphore(CONCURRENT_CLIENTS);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(requests);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                responses.add(client.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> inFlight.release()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+        }
+    }
+
+    private static byte[] watchedBitmap(long... contentIds) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Roaring64NavigableMap.bitmapOf(contentIds).serializePortable(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void respondSlowly(HttpExchange exchange, byte[] json) throws IOException {
+        respondSlowly(exchange, "application/json", json);
+    }
+
+    private static void respondSlowly(HttpExchange exchange, String contentType, byte[] bytes) throws IOException {
+        try {
+            Thread.sleep(DOWNSTREAM_LATENCY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -11,7 +11,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -36,10 +41,8 @@ class RecommendationServiceTest {
 
     @Test
     void getRecommendations_shouldReturnContent() throws Exception {
-        // Mock Viewing History with 2 viewed items and totalElements > 2 to satisfy threshold
-        ObjectMapper realMapper = new ObjectMapper();
-        JsonNode historyNode = realMapper.readTree("{\"totalElements\": 3, \"content\": [{\"contentId\": 99}, {\"contentId\": 98}]}");
-        when(playbackClient.getViewingHistory(1L)).thenReturn(historyNode);
+        // Mock watched set with 2 viewed items to satisfy threshold
+        when(playbackClient.getWatchedContentIds(1L)).thenReturn(watched(99L, 98L));
         
         // Mock Categories
         when(contentClient.getCategories()).thenReturn(List.of("ENTERTAINMENT"));
@@ -68,4 +71,45 @@ class RecommendationServiceTest {
         assertEquals(1, result.size());
         assertEquals(10L, result.get(0).getId());
     }
+
+    @Test
+    void getRecommendations_shouldExcludeWatchedContent() throws Exception {
+        when(playbackClient.getWatchedContentIds(1L)).thenReturn(watched(10L, 11L));
+        when(contentClient.getCategories()).thenReturn(List.of("ENTERTAINMENT"));
+        JsonNode contentPage = mock(JsonNode.class);
+        when(contentClient.searchContent(eq(""), eq("ENTERTAINMENT"), eq(20))).thenReturn(contentPage);
+        when(contentPage.has("content")).thenReturn(true);
+        JsonNode contentList = mock(JsonNode.class);
+        when(contentPage.get("content")).thenReturn(contentList);
+        when(contentList.toString()).thenReturn("[]");
+        ContentResponse watched = new ContentResponse();
+        watched.setId(10L);
+        ContentResponse unwatched = new ContentResponse();
+        unwatched.setId(12L);
+        when(objectMapper.readValue("[]", ContentResponse[].class)).thenReturn(new ContentResponse[]{watched, unwatched});
+
+        List<ContentResponse> result = recommendationService.getRecommendations(1L);
+
+        assertEquals(1, result.size());
+        assertEquals(12L, result.get(0).getId());
+    }
+
+    @Test
+    void getRecommendations_shouldReturnEmptyBelowWatchThreshold() {
+        when(playbackClient.getWatchedContentIds(1L)).thenReturn(watched(99L));
+
+        assertTrue(recommendationService.getRecommendations(1L).isEmpty());
+        verifyNoInteractions(contentClient);
+    }
+
+    private static byte[] watched(long... contentIds) {
+        Roaring64NavigableMap bitmap = Roaring64NavigableMap.bitmapOf(contentIds);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            bitmap.serializePortable(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
 }
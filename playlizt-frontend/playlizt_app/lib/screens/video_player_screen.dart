@@ -116,6 +116,8 @@ class _VideoPlayerScreenState extends State<VideoPlayerScreen> {
         userId: userId,
         contentId: widget.content.id,
         positionSeconds: position,
+        durationSeconds: _durationSeconds > 0 ? _durationSeconds : null,
+        category: widget.content.category,
       );
     } catch (e) {
       print('Playback tracking error: $e');
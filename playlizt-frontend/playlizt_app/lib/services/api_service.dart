@@ -205,6 +205,8 @@ class ApiService {
     required int contentId,
     required int positionSeconds,
     bool completed = false,
+    int? durationSeconds,
+    String? category,
   }) async {
     try {
       await _dio.post('/playback/track', data: {
@@ -212,17 +214,19 @@ class ApiService {
         'contentId': contentId,
         'positionSeconds': positionSeconds,
         'completed': completed,
+        if (durationSeconds != null) 'durationSeconds': durationSeconds,
+        if (category != null) 'category': category,
       });
     } on DioException catch (e) {
       throw _handleError(e);
     }
   }
   
-  Future<Map<String, dynamic>> getContinueWatching(int userId, {int page = 0, int size = 10}) async {
+  Future<Map<String, dynamic>> getContinueWatching(int userId, {String? cursor, int size = 10}) async {
     try {
       final response = await _dio.get('/playback/continue', queryParameters: {
         'userId': userId,
-        'page': page,
+        if (cursor != null) 'cursor': cursor,
         'size': size,
       });
       return response.data;
@@ -0,0 +1,125 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 03:25
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop heartbeat load against POST /api/v1/playback/track: every connection sends its next heartbeat
+ * as soon as the previous one is answered. Needs nothing but a JDK, run as a single source file from
+ * loadTestPlayback.sh.
+ * <p>
+ * Usage: java PlaybackLoadTest.java base-url warmup-seconds measure-seconds connections users content
+ */
+public class PlaybackLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int warmupSeconds = Integer.parseInt(args[1]);
+        int measureSeconds = Integer.parseInt(args[2]);
+        int connections = Integer.parseInt(args[3]);
+        int users = Integer.parseInt(args[4]);
+        int content = Integer.parseInt(args[5]);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        URI track = URI.create(baseUrl + "/api/v1/playback/track");
+
+        System.out.printf("Warming up %s for %ds...%n", baseUrl, warmupSeconds);
+        run(client, track, warmupSeconds, connections, users, content);
+
+        System.out.printf("Measuring /track for %ds with %d connections...%n", measureSeconds, connections);
+        Result result = run(client, track, measureSeconds, connections, users, content);
+        long[] latencies = result.latenciesMicros;
+        Arrays.sort(latencies);
+        System.out.printf("  Requests       %d (%d non-2xx, %d errors)%n", latencies.length, result.non2xx.get(), result.errors.get());
+        System.out.printf("  Requests/sec   %.1f%n", latencies.length / (double) measureSeconds);
+        System.out.printf("  Latency p50    %.2f ms%n", percentile(latencies, 0.50));
+        System.out.printf("  Latency p90    %.2f ms%n", percentile(latencies, 0.90));
+        System.out.printf("  Latency p99    %.2f ms%n", percentile(latencies, 0.99));
+        System.out.printf("  Latency max    %.2f ms%n", latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1000.0);
+    }
+
+    private static Result run(HttpClient client, URI track, int seconds, int connections, int users, int content)
+            throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Result result = new Result();
+        List<Future<long[]>> perConnection = new ArrayList<>(connections);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                perConnection.add(workers.submit(() -> connection(client, track, deadline, users, content, result)));
+            }
+        }
+        List<long[]> latencies = new ArrayList<>(connections);
+        for (Future<long[]> connection : perConnection) {
+            latencies.add(connection.get());
+        }
+        result.latenciesMicros = latencies.stream().flatMapToLong(Arrays::stream).toArray();
+        return result;
+    }
+
+    private static long[] connection(HttpClient client, URI track, long deadline, int users, int content, Result result) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[4096];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            // Random (user, content) pairs so the run exercises both inserts and updates of viewing_history
+            String body = String.format(
+                    "{\"userId\":%d,\"contentId\":%d,\"positionSeconds\":%d,\"durationSeconds\":600}",
+                    random.nextInt(1, users + 1), random.nextInt(1, content + 1), random.nextInt(0, 601));
+            HttpRequest request = HttpRequest.newBuilder(track)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            long started = System.nanoTime();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status / 100 != 2) {
+                    result.non2xx.incrementAndGet();
+                }
+            } catch (Exception e) {
+                result.errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = (System.nanoTime() - started) / 1000;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1000.0;
+    }
+
+    private static class Result {
+        private final AtomicLong non2xx = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latenciesMicros;
+    }
+}
@@ -0,0 +1,21 @@
+#!/bin/bash
+# Heartbeat load test for the playback service. Run it once against the default (servlet) stack and once
+# with SPRING_PROFILES_ACTIVE including "reactive", then compare the latency percentiles and requests/sec.
+#
+# Usage: loadTestPlayback.sh [base-url] [duration-seconds] [connections]
+# Requires a JDK 21 or newer on the PATH; the load is driven by PlaybackLoadTest.java next to this script.
+
+BASE_URL=${1:-http://localhost:${PLAYLIZT_PLAYBACK_PORT:-4083}}
+DURATION=${2:-60}
+CONNECTIONS=${3:-200}
+WARMUP=${LOAD_TEST_WARMUP:-10}
+USERS=${LOAD_TEST_USERS:-10000}
+CONTENT=${LOAD_TEST_CONTENT:-500}
+
+if ! command -v java >/dev/null 2>&1; then
+  echo "java is required for the load test" >&2
+  exit 1
+fi
+
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+java "$SCRIPT_DIR/PlaybackLoadTest.java" "$BASE_URL" "$WARMUP" "$DURATION" "$CONNECTIONS" "$USERS" "$CONTENT"
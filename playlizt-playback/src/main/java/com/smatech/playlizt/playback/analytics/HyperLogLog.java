@@ -0,0 +1,120 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 12:04
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+/**
+ * Dense HyperLogLog with 2^12 one-byte registers (4 KB), giving a relative standard error of about 1.6%.
+ * Sketches merge by taking the register-wise maximum, so unions across days or instances are lossless.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTER_COUNT);
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+    private boolean dirty;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTER_COUNT) {
+            throw new IllegalArgumentException("HyperLogLog expects " + REGISTER_COUNT + " registers");
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    /**
+     * Returns true when the value changed a register. The unsynchronised pre-check keeps repeat viewers,
+     * which are the common case once a sketch has warmed up, off the lock.
+     */
+    public boolean offer(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (registers[index] >= rank) {
+            return false;
+        }
+        synchronized (this) {
+            if (registers[index] >= rank) {
+                return false;
+            }
+            registers[index] = rank;
+            dirty = true;
+            return true;
+        }
+    }
+
+    public synchronized HyperLogLog merge(HyperLogLog other) {
+        byte[] source = other.toBytes();
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (source[i] > registers[i]) {
+                registers[i] = source[i];
+                dirty = true;
+            }
+        }
+        return this;
+    }
+
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /**
+     * Returns a copy of the registers and clears the dirty flag, or null when nothing changed since the
+     * last call.
+     */
+    public synchronized byte[] takeIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return registers.clone();
+    }
+
+    public synchronized void markDirty() {
+        dirty = true;
+    }
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    // SplitMix64 finaliser: user ids are sequential, so they need spreading before bucketing
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
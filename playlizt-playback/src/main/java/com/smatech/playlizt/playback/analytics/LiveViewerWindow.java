@@ -0,0 +1,133 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 17:10
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Users seen per content over a sliding time window, held as a ring of fixed-width time buckets.
+ * A bucket is replaced wholesale the first time it is written in a new period, so old heartbeats age out
+ * without timers or per-entry bookkeeping. Counts are exact at bucket granularity: the window covers the
+ * current bucket plus enough earlier ones to span the configured duration.
+ */
+public class LiveViewerWindow {
+
+    private final long bucketMillis;
+    private final int windowBuckets;
+    // One spare slot so the bucket being recycled is never one that is still inside the window
+    private final AtomicReferenceArray<Generation> slots;
+
+    public LiveViewerWindow(Duration window, Duration bucketWidth) {
+        this.bucketMillis = Math.max(1, bucketWidth.toMillis());
+        this.windowBuckets = (int) Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis);
+        this.slots = new AtomicReferenceArray<>(windowBuckets + 1);
+    }
+
+    public void record(long contentId, long userId, long nowMillis) {
+        Generation generation = generationFor(nowMillis / bucketMillis);
+        if (generation == null) {
+            return;
+        }
+        LongHashSet viewers = generation.viewers.computeIfAbsent(contentId, id -> new LongHashSet());
+        synchronized (viewers) {
+            viewers.add(userId);
+        }
+    }
+
+    public long countViewers(long contentId, long nowMillis) {
+        LongHashSet union = new LongHashSet();
+        for (Generation generation : live(nowMillis)) {
+            LongHashSet viewers = generation.viewers.get(contentId);
+            if (viewers != null) {
+                synchronized (viewers) {
+                    union.addAll(viewers);
+                }
+            }
+        }
+        return union.size();
+    }
+
+    public Map<Long, Long> countByContent(long nowMillis) {
+        Map<Long, LongHashSet> unions = new HashMap<>();
+        for (Generation generation : live(nowMillis)) {
+            generation.viewers.forEach((contentId, viewers) -> {
+                LongHashSet union = unions.computeIfAbsent(contentId, id -> new LongHashSet());
+                synchronized (viewers) {
+                    union.addAll(viewers);
+                }
+            });
+        }
+        Map<Long, Long> counts = new HashMap<>(unions.size());
+        unions.forEach((contentId, union) -> counts.put(contentId, (long) union.size()));
+        return counts;
+    }
+
+    /**
+     * Distinct users watching anything, so a user switching content inside the window counts once.
+     */
+    public long countAll(long nowMillis) {
+        LongHashSet union = new LongHashSet();
+        for (Generation generation : live(nowMillis)) {
+            generation.viewers.values().forEach(viewers -> {
+                synchronized (viewers) {
+                    union.addAll(viewers);
+                }
+            });
+        }
+        return union.size();
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(bucketMillis * windowBuckets);
+    }
+
+    private Generation generationFor(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) slots.length());
+        while (true) {
+            Generation current = slots.get(index);
+            if (current != null && current.epoch == epoch) {
+                return current;
+            }
+            if (current != null && current.epoch > epoch) {
+                // The caller's clock reading is older than the ring; its heartbeat has already aged out
+                return null;
+            }
+            Generation fresh = new Generation(epoch);
+            if (slots.compareAndSet(index, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private List<Generation> live(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        List<Generation> live = new ArrayList<>(windowBuckets);
+        for (int i = 0; i < slots.length(); i++) {
+            Generation generation = slots.get(i);
+            if (generation != null && generation.epoch <= current && generation.epoch > current - windowBuckets) {
+                live.add(generation);
+            }
+        }
+        return live;
+    }
+
+    private static final class Generation {
+        private final long epoch;
+        private final ConcurrentHashMap<Long, LongHashSet> viewers = new ConcurrentHashMap<>();
+
+        private Generation(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
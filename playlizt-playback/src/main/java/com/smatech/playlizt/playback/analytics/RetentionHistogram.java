@@ -0,0 +1,120 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 16:02
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Viewers of one content item counted by the furthest 5% bucket they reached, from 0% to 100%.
+ * Each viewer sits in exactly one bucket and moves up as their maximum position advances, so the share of
+ * viewers who got at least as far as a bucket is the suffix sum from that bucket on.
+ * <p>
+ * Live instances hold signed deltas since the last flush; stored histograms hold absolute counts.
+ */
+public class RetentionHistogram {
+
+    public static final int BUCKET_PERCENT = 5;
+    public static final int BUCKET_COUNT = 100 / BUCKET_PERCENT + 1;
+
+    private final int[] counts;
+    private boolean dirty;
+
+    public RetentionHistogram() {
+        this.counts = new int[BUCKET_COUNT];
+    }
+
+    private RetentionHistogram(int[] counts) {
+        this.counts = counts;
+    }
+
+    public static int bucketOf(int positionSeconds, int durationSeconds) {
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        long bucket = (long) Math.max(positionSeconds, 0) * (BUCKET_COUNT - 1) / durationSeconds;
+        return (int) Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Moves one viewer from {@code fromBucket} to {@code toBucket}; a {@code fromBucket} of -1 adds a new viewer.
+     */
+    public synchronized void move(int fromBucket, int toBucket) {
+        if (fromBucket == toBucket) {
+            return;
+        }
+        if (fromBucket >= 0) {
+            counts[fromBucket]--;
+        }
+        counts[toBucket]++;
+        dirty = true;
+    }
+
+    public synchronized void add(int[] deltas) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += deltas[i];
+        }
+        dirty = true;
+    }
+
+    /**
+     * Adds deltas to absolute counts, keeping every count at zero or above.
+     */
+    public synchronized void addClamped(int[] deltas) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = Math.max(counts[i] + deltas[i], 0);
+        }
+        dirty = true;
+    }
+
+    public synchronized int[] toArray() {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the counts and resets them to zero if anything changed since the last call, otherwise null.
+     */
+    public synchronized int[] takeIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        int[] taken = counts.clone();
+        Arrays.fill(counts, 0);
+        dirty = false;
+        return taken;
+    }
+
+    /**
+     * Number of viewers who reached at least each bucket. Negative counts, possible while pending deltas
+     * are laid over a stored curve, are treated as zero.
+     */
+    public static long[] reached(int[] counts) {
+        long[] reached = new long[BUCKET_COUNT];
+        long running = 0;
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            running += Math.max(counts[i], 0);
+            reached[i] = running;
+        }
+        return reached;
+    }
+
+    public static RetentionHistogram fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BUCKET_COUNT * Integer.BYTES) {
+            throw new IllegalArgumentException("Retention histogram expects " + BUCKET_COUNT + " buckets");
+        }
+        int[] counts = new int[BUCKET_COUNT];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(counts);
+        return new RetentionHistogram(counts);
+    }
+
+    public synchronized byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(BUCKET_COUNT * Integer.BYTES);
+        buffer.asIntBuffer().put(counts);
+        return buffer.array();
+    }
+}
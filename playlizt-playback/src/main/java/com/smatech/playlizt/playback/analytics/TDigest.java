@@ -0,0 +1,255 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 23:05
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest: a sorted list of weighted centroids whose maximum weight shrinks towards both tails,
+ * so extreme quantiles stay accurate while the middle is summarised coarsely. Digests merge by re-clustering
+ * their centroids together, so per-instance deltas and stored digests combine without the raw values.
+ * <p>
+ * Added values are buffered and folded in once the buffer fills or the digest is read.
+ */
+public class TDigest {
+
+    public static final int DEFAULT_COMPRESSION = 100;
+
+    private static final int HEADER_BYTES = Short.BYTES + 2 * Double.BYTES + Integer.BYTES;
+    private static final int CENTROID_BYTES = Float.BYTES + Integer.BYTES;
+
+    private final int compression;
+    private double[] means;
+    private long[] weights;
+    private int centroidCount;
+    private final double[] buffer;
+    private int bufferCount;
+    private long totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private boolean dirty;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(int compression) {
+        if (compression < 10 || compression > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Compression must be between 10 and " + Short.MAX_VALUE);
+        }
+        this.compression = compression;
+        this.means = new double[0];
+        this.weights = new long[0];
+        this.buffer = new double[5 * compression];
+    }
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN");
+        }
+        buffer[bufferCount++] = value;
+        totalWeight++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        dirty = true;
+        if (bufferCount == buffer.length) {
+            compress(null, null, 0);
+        }
+    }
+
+    public synchronized TDigest merge(TDigest other) {
+        double[] otherMeans;
+        long[] otherWeights;
+        int otherCount;
+        double otherMin;
+        double otherMax;
+        long otherTotal;
+        synchronized (other) {
+            other.compress(null, null, 0);
+            otherMeans = other.means.clone();
+            otherWeights = other.weights.clone();
+            otherCount = other.centroidCount;
+            otherMin = other.min;
+            otherMax = other.max;
+            otherTotal = other.totalWeight;
+        }
+        if (otherTotal == 0) {
+            return this;
+        }
+        totalWeight += otherTotal;
+        min = Math.min(min, otherMin);
+        max = Math.max(max, otherMax);
+        compress(otherMeans, otherWeights, otherCount);
+        dirty = true;
+        return this;
+    }
+
+    public synchronized long size() {
+        return totalWeight;
+    }
+
+    /**
+     * Estimated value at quantile {@code q} in [0, 1], or NaN when the digest is empty. Values are
+     * interpolated between centroid centres, and between the outer centroids and the exact min and max.
+     */
+    public synchronized double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        compress(null, null, 0);
+        if (totalWeight == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        double index = q * totalWeight;
+        if (index <= weights[0] / 2.0) {
+            return min + (means[0] - min) * index / (weights[0] / 2.0);
+        }
+        double cumulative = weights[0] / 2.0;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2.0;
+            if (cumulative + step >= index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        int last = centroidCount - 1;
+        double tail = weights[last] / 2.0;
+        return means[last] + (max - means[last]) * Math.min(1.0, (index - cumulative) / tail);
+    }
+
+    /**
+     * Returns the serialised digest and resets it to empty, or null when nothing was added since the last call.
+     */
+    public synchronized byte[] takeIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        byte[] taken = toBytes();
+        means = new double[0];
+        weights = new long[0];
+        centroidCount = 0;
+        totalWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        dirty = false;
+        return taken;
+    }
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Compression, min and max, then each centroid as a float mean and an int weight: well under 1 KB for
+     * the default compression however many values were added.
+     */
+    public synchronized byte[] toBytes() {
+        compress(null, null, 0);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + centroidCount * CENTROID_BYTES);
+        out.putShort((short) compression);
+        out.putDouble(min);
+        out.putDouble(max);
+        out.putInt(centroidCount);
+        for (int i = 0; i < centroidCount; i++) {
+            out.putFloat((float) means[i]);
+            out.putInt((int) Math.min(weights[i], Integer.MAX_VALUE));
+        }
+        return out.array();
+    }
+
+    public static TDigest fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("t-digest data is truncated");
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        TDigest digest = new TDigest(in.getShort());
+        digest.min = in.getDouble();
+        digest.max = in.getDouble();
+        int count = in.getInt();
+        if (count < 0 || in.remaining() != count * CENTROID_BYTES) {
+            throw new IllegalArgumentException("t-digest data is truncated");
+        }
+        digest.means = new double[count];
+        digest.weights = new long[count];
+        for (int i = 0; i < count; i++) {
+            digest.means[i] = in.getFloat();
+            digest.weights[i] = in.getInt();
+            digest.totalWeight += digest.weights[i];
+        }
+        digest.centroidCount = count;
+        return digest;
+    }
+
+    /**
+     * Sorts the current centroids, buffered values and any extra centroids together and greedily merges
+     * neighbours while the merged centroid spans at most one unit of {@link #scale(double)}.
+     */
+    private void compress(double[] extraMeans, long[] extraWeights, int extraCount) {
+        if (bufferCount == 0 && extraCount == 0) {
+            return;
+        }
+        int count = centroidCount + bufferCount + extraCount;
+        double[] allMeans = new double[count];
+        long[] allWeights = new long[count];
+        System.arraycopy(means, 0, allMeans, 0, centroidCount);
+        System.arraycopy(weights, 0, allWeights, 0, centroidCount);
+        System.arraycopy(buffer, 0, allMeans, centroidCount, bufferCount);
+        Arrays.fill(allWeights, centroidCount, centroidCount + bufferCount, 1L);
+        if (extraCount > 0) {
+            System.arraycopy(extraMeans, 0, allMeans, centroidCount + bufferCount, extraCount);
+            System.arraycopy(extraWeights, 0, allWeights, centroidCount + bufferCount, extraCount);
+        }
+        bufferCount = 0;
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += allWeights[i];
+        }
+        double[] mergedMeans = new double[count];
+        long[] mergedWeights = new long[count];
+        int merged = 0;
+        long before = 0;
+        double currentMean = allMeans[order[0]];
+        long currentWeight = allWeights[order[0]];
+        for (int i = 1; i < count; i++) {
+            int next = order[i];
+            long proposed = currentWeight + allWeights[next];
+            if (scale((double) (before + proposed) / total) - scale((double) before / total) <= 1.0) {
+                currentMean += (allMeans[next] - currentMean) * allWeights[next] / proposed;
+                currentWeight = proposed;
+            } else {
+                mergedMeans[merged] = currentMean;
+                mergedWeights[merged++] = currentWeight;
+                before += currentWeight;
+                currentMean = allMeans[next];
+                currentWeight = allWeights[next];
+            }
+        }
+        mergedMeans[merged] = currentMean;
+        mergedWeights[merged++] = currentWeight;
+
+        means = Arrays.copyOf(mergedMeans, merged);
+        weights = Arrays.copyOf(mergedWeights, merged);
+        centroidCount = merged;
+    }
+
+    // k1 scale function: steep near q = 0 and 1, so centroids there hold few values; about compression / 2 in total
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1.0, q) - 1);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 18:10
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code k} highest-scoring ids seen, using a min-heap whose root is the entry to beat.
+ * Offering n entries costs O(n log k) and holds at most k of them. Not thread-safe.
+ */
+public class TopK {
+
+    private static final Comparator<Entry> ASCENDING =
+            Comparator.comparingDouble(Entry::getScore).thenComparing(Entry::getId, Comparator.reverseOrder());
+
+    private final int k;
+    private final PriorityQueue<Entry> heap;
+
+    public TopK(int k) {
+        this.k = Math.max(1, k);
+        this.heap = new PriorityQueue<>(this.k + 1, ASCENDING);
+    }
+
+    public void offer(long id, double score) {
+        if (heap.size() < k) {
+            heap.add(new Entry(id, score));
+        } else if (score > heap.peek().getScore()) {
+            heap.poll();
+            heap.add(new Entry(id, score));
+        }
+    }
+
+    /**
+     * Entries from highest to lowest score.
+     */
+    public List<Entry> toList() {
+        List<Entry> entries = new ArrayList<>(heap);
+        entries.sort(ASCENDING.reversed());
+        return entries;
+    }
+
+    @Value
+    public static class Entry {
+        long id;
+        double score;
+    }
+}
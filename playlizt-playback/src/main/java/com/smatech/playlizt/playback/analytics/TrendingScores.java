@@ -0,0 +1,103 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 18:02
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Exponentially time-decayed score per content id.
+ * <p>
+ * Rather than decaying every score on every tick, each increment is scaled up by {@code e^(lambda(t - epoch))}
+ * and stored. All stored scores then share the same decay factor {@code e^(-lambda(now - epoch))}, so an update
+ * is one multiply-add and relative order is unaffected by time passing. {@link #rebase(long, double)} folds
+ * the factor in before the stored values grow too large for a double.
+ */
+public class TrendingScores {
+
+    private final double lambdaPerMilli;
+    private final ConcurrentHashMap<Long, Score> scores = new ConcurrentHashMap<>();
+    // Updates share the read side; only a rebase, which rewrites every score, needs exclusive access
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+    private volatile long epochMillis;
+
+    public TrendingScores(Duration halfLife, long nowMillis) {
+        this.lambdaPerMilli = Math.log(2) / Math.max(1, halfLife.toMillis());
+        this.epochMillis = nowMillis;
+    }
+
+    public void add(long contentId, double weight, long nowMillis) {
+        rebaseLock.readLock().lock();
+        try {
+            double scaled = weight * Math.exp(lambdaPerMilli * (nowMillis - epochMillis));
+            scores.computeIfAbsent(contentId, id -> new Score()).add(scaled);
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every score, decayed to {@code nowMillis}.
+     */
+    public void forEach(long nowMillis, ScoreConsumer consumer) {
+        double decay = Math.exp(-lambdaPerMilli * (nowMillis - epochMillis));
+        scores.forEach((contentId, score) -> consumer.accept(contentId, score.get() * decay));
+    }
+
+    public double scoreOf(long contentId, long nowMillis) {
+        Score score = scores.get(contentId);
+        return score == null ? 0 : score.get() * Math.exp(-lambdaPerMilli * (nowMillis - epochMillis));
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * Applies the decay accumulated since the last rebase to the stored values and drops scores that have
+     * decayed below {@code evictBelow}.
+     */
+    public void rebase(long nowMillis, double evictBelow) {
+        rebaseLock.writeLock().lock();
+        try {
+            double decay = Math.exp(-lambdaPerMilli * (nowMillis - epochMillis));
+            scores.values().removeIf(score -> score.scale(decay) < evictBelow);
+            epochMillis = nowMillis;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    @FunctionalInterface
+    public interface ScoreConsumer {
+        void accept(long contentId, double score);
+    }
+
+    private static final class Score {
+        private double value;
+
+        synchronized void add(double delta) {
+            value += delta;
+        }
+
+        synchronized double get() {
+            return value;
+        }
+
+        synchronized double scale(double factor) {
+            value *= factor;
+            return value;
+        }
+    }
+}
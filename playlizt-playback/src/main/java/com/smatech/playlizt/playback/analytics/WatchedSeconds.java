@@ -0,0 +1,138 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 22:20
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The seconds of one content item a viewer has actually played, one bit per second. Re-watching a second
+ * sets the same bit again and skipped seconds stay clear, so the cardinality is the exact number of unique
+ * seconds watched.
+ * <p>
+ * Stored as run lengths: alternating unsigned varints for the gap before each run and the run's length.
+ * Contiguous viewing compresses to a few bytes however long it is. Not thread-safe.
+ */
+public class WatchedSeconds {
+
+    private final BitSet seconds;
+
+    public WatchedSeconds() {
+        this.seconds = new BitSet();
+    }
+
+    private WatchedSeconds(BitSet seconds) {
+        this.seconds = seconds;
+    }
+
+    /**
+     * Marks {@code [fromSecond, toSecond)} as watched.
+     */
+    public void mark(int fromSecond, int toSecond) {
+        if (fromSecond < 0 || toSecond < fromSecond) {
+            throw new IllegalArgumentException("Invalid range [" + fromSecond + ", " + toSecond + ")");
+        }
+        seconds.set(fromSecond, toSecond);
+    }
+
+    public WatchedSeconds or(WatchedSeconds other) {
+        seconds.or(other.seconds);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return seconds.isEmpty();
+    }
+
+    public int uniqueSeconds() {
+        return seconds.cardinality();
+    }
+
+    /**
+     * Percentage of {@code [0, durationSeconds)} watched; seconds past the duration are not counted.
+     */
+    public double coveragePercent(int durationSeconds) {
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        int covered = seconds.length() <= durationSeconds
+                ? seconds.cardinality()
+                : seconds.get(0, durationSeconds).cardinality();
+        return 100.0 * covered / durationSeconds;
+    }
+
+    /**
+     * Watched runs as {@code [start, end)} pairs in ascending order.
+     */
+    public List<int[]> ranges() {
+        List<int[]> ranges = new ArrayList<>();
+        int start = seconds.nextSetBit(0);
+        while (start >= 0) {
+            int end = seconds.nextClearBit(start);
+            ranges.add(new int[]{start, end});
+            start = seconds.nextSetBit(end);
+        }
+        return ranges;
+    }
+
+    public WatchedSeconds copy() {
+        return new WatchedSeconds((BitSet) seconds.clone());
+    }
+
+    public byte[] toRunLength() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int previousEnd = 0;
+        for (int[] range : ranges()) {
+            writeVarint(out, range[0] - previousEnd);
+            writeVarint(out, range[1] - range[0]);
+            previousEnd = range[1];
+        }
+        return out.toByteArray();
+    }
+
+    public static WatchedSeconds fromRunLength(byte[] runs) {
+        WatchedSeconds watched = new WatchedSeconds();
+        if (runs == null) {
+            return watched;
+        }
+        int[] offset = {0};
+        int position = 0;
+        while (offset[0] < runs.length) {
+            int start = position + readVarint(runs, offset);
+            int end = start + readVarint(runs, offset);
+            watched.seconds.set(start, end);
+            position = end;
+        }
+        return watched;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] offset) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (offset[0] >= bytes.length) {
+                throw new IllegalArgumentException("Truncated run-length data");
+            }
+            byte b = bytes[offset[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed run-length data");
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 09:12
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "playback")
+@Data
+public class PlaybackProperties {
+    private WriteBehind writeBehind = new WriteBehind();
+    private Reach reach = new Reach();
+    private Platform platform = new Platform();
+    private Batch batch = new Batch();
+    private Events events = new Events();
+    private Retention retention = new Retention();
+    private Live live = new Live();
+    private Trending trending = new Trending();
+    private Reactive reactive = new Reactive();
+    private Sync sync = new Sync();
+    private Watched watched = new Watched();
+    private Coverage coverage = new Coverage();
+    private WatchTime watchTime = new WatchTime();
+    private Cohort cohort = new Cohort();
+    private Export export = new Export();
+
+    @Data
+    public static class WriteBehind {
+        // When disabled every heartbeat is written to viewing_history on the request thread
+        private boolean enabled = false;
+        private Duration flushInterval = Duration.ofSeconds(5);
+        // Heartbeat threads flush inline once this many (user, content) pairs are pending
+        private int maxBufferSize = 50_000;
+        private int batchSize = 500;
+        private int stripes = 16;
+    }
+
+    @Data
+    public static class Reach {
+        private Duration flushInterval = Duration.ofMinutes(1);
+        private int maxRangeDays = 366;
+    }
+
+    @Data
+    public static class Retention {
+        private Duration flushInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Live {
+        // A viewer counts as watching for this long after their last heartbeat, rounded up to whole buckets
+        private Duration window = Duration.ofMinutes(2);
+        private Duration bucketWidth = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Trending {
+        private Duration halfLife = Duration.ofHours(6);
+        private Duration refreshInterval = Duration.ofSeconds(10);
+        // Entries kept per category between refreshes
+        private int topK = 50;
+    }
+
+    @Data
+    public static class Watched {
+        // Users whose watched-content bitmap is kept in memory; others are rebuilt from viewing_history
+        private long maxUsers = 100_000;
+        // Bitmaps are rebuilt from viewing_history this long after loading, bounding staleness across instances
+        private Duration reloadAfter = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Coverage {
+        private Duration flushInterval = Duration.ofMinutes(1);
+        // Forward jumps between heartbeats longer than this are treated as seeks, not played seconds
+        private Duration maxHeartbeatGap = Duration.ofSeconds(30);
+        // Sessions with nothing pending are dropped from memory after this long without a heartbeat
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        // Positions beyond this are ignored, bounding the size of one bitset
+        private int maxSeconds = 86_400;
+    }
+
+    @Data
+    public static class WatchTime {
+        private Duration flushInterval = Duration.ofMinutes(1);
+        // A viewing session is finished, and its watch time added to the digest, after this long without a heartbeat
+        private Duration sessionIdleTimeout = Duration.ofMinutes(30);
+        private int compression = 100;
+    }
+
+    @Data
+    public static class Cohort {
+        private Duration flushInterval = Duration.ofMinutes(1);
+        // Viewers active this many days before the first cohort day are returning viewers, not new ones
+        private int lookbackDays = 30;
+        private int maxRangeDays = 180;
+        private int maxOffsetDays = 90;
+        // Fork-join workers computing matrix cells; 0 uses one per available processor
+        private int parallelism = 0;
+    }
+
+    @Data
+    public static class Export {
+        // Rows fetched per cursor round trip, and written between flushes to the client
+        private int fetchSize = 1000;
+        // Upper bound on the updated_at range of an all-users export
+        private int maxRangeDays = 31;
+    }
+
+    @Data
+    public static class Sync {
+        // Position sync socket; a slow device is dropped rather than holding up the others
+        private Duration sendTimeLimit = Duration.ofSeconds(5);
+        private int sendBufferSizeLimit = 64 * 1024;
+        private int maxSessionsPerUser = 16;
+        private String allowedOrigins = "*";
+    }
+
+    @Data
+    public static class Reactive {
+        // R2DBC connection used by the "reactive" profile for the heartbeat path
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 20;
+    }
+
+    @Data
+    public static class Platform {
+        // How often the platform counters are re-based on the content_stats rollup
+        private Duration checkpointInterval = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Batch {
+        // Upper bound on items accepted by one batch call (heartbeats or content ids)
+        private int maxItems = 1000;
+        // Upper bound on a batch body buffered before parsing
+        private DataSize maxBytes = DataSize.ofMegabytes(1);
+    }
+
+    @Data
+    public static class Events {
+        // Appends every heartbeat to the partitioned playback_events log; needs Postgres
+        private boolean enabled = false;
+        private Duration flushInterval = Duration.ofSeconds(2);
+        private int batchSize = 1000;
+        private int maxQueueSize = 100_000;
+        private int premakeDays = 7;
+        private int retentionDays = 90;
+        private String maintenanceCron = "0 5 0 * * *";
+    }
+}
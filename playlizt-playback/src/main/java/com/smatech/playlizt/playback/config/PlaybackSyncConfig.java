@@ -0,0 +1,34 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:31
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.config;
+
+import zw.co.t3ratech.playlizt.playback.controller.PlaybackSyncHandler;
+import zw.co.t3ratech.playlizt.playback.controller.PlaybackSyncHandshakeInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class PlaybackSyncConfig implements WebSocketConfigurer {
+
+    private final PlaybackSyncHandler playbackSyncHandler;
+    private final PlaybackProperties playbackProperties;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(playbackSyncHandler, "/api/v1/playback/sync")
+                .addInterceptors(new PlaybackSyncHandshakeInterceptor())
+                .setAllowedOriginPatterns(playbackProperties.getSync().getAllowedOrigins().split(","));
+    }
+}
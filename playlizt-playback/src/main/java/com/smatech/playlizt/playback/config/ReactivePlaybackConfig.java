@@ -0,0 +1,83 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 19:52
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.config;
+
+import zw.co.t3ratech.playlizt.playback.controller.ReactivePlaybackHandler;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Wiring for the "reactive" profile, which serves the playback API from WebFlux instead of Spring MVC.
+ * The pool is deliberately not a default candidate: a visible ConnectionFactory would make Spring Boot run
+ * the SQL init scripts over R2DBC, before Hibernate has created the tables they index.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactivePlaybackConfig {
+
+    // Tomcat stays on the classpath for the servlet stack, and Spring Boot would otherwise prefer it for WebFlux too
+    @Bean
+    public NettyReactiveWebServerFactory playbackWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(defaultCandidate = false, destroyMethod = "dispose")
+    public ConnectionPool playbackConnectionPool(PlaybackProperties playbackProperties) {
+        PlaybackProperties.Reactive reactive = playbackProperties.getReactive();
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(reactive.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, reactive.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, reactive.getPassword())
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(reactive.getMaxPoolSize())
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient playbackDatabaseClient(PlaybackProperties playbackProperties) {
+        return DatabaseClient.create(playbackConnectionPool(playbackProperties));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> playbackRoutes(ReactivePlaybackHandler handler) {
+        return route()
+                .path("/api/v1/playback", builder -> builder
+                        .POST("/track", handler::trackPlayback)
+                        .POST("/track/batch", contentType(MediaType.APPLICATION_NDJSON), handler::trackPlaybackNdjson)
+                        .POST("/track/batch", contentType(MediaType.APPLICATION_JSON), handler::trackPlaybackBatch)
+                        .GET("/status", handler::getPlaybackStatus)
+                        .GET("/coverage", handler::getCoverage)
+                        .GET("/history", handler::getViewingHistory)
+                        .GET("/history/ids", handler::getWatchedContentIds)
+                        .GET("/history/export", handler::exportViewingHistory)
+                        .GET("/continue", handler::getContinueWatching)
+                        .GET("/live", handler::getLiveViewers)
+                        .GET("/trending", handler::getTrending)
+                        .POST("/analytics/content/bulk", handler::getBulkContentAnalytics)
+                        .GET("/analytics/content/{contentId}/reach", handler::getContentReach)
+                        .GET("/analytics/content/{contentId}/retention", handler::getContentRetention)
+                        .GET("/analytics/content/{contentId}", handler::getContentAnalytics)
+                        .POST("/analytics/content-stats/rebuild", handler::rebuildContentStats)
+                        .GET("/analytics/cohorts", handler::getCohortRetention)
+                        .GET("/analytics/platform", handler::getPlatformAnalytics))
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:10
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.controller;
+
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a JSON array batch of heartbeats for both the servlet and reactive controllers, one element at a
+ * time, so an oversized batch is refused at the first item past the limit instead of after binding the whole
+ * array.
+ */
+final class JsonPlaybackRequests {
+
+    private JsonPlaybackRequests() {
+    }
+
+    static List<PlaybackRequest> read(InputStream body, ObjectMapper objectMapper, int maxItems) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of heartbeats");
+            }
+            List<PlaybackRequest> requests = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (requests.size() == maxItems) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE);
+                }
+                requests.add(objectMapper.readValue(parser, PlaybackRequest.class));
+            }
+            return requests;
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed heartbeat batch", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 19:45
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.controller;
+
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an NDJSON batch of heartbeats for both the servlet and reactive controllers.
+ */
+final class NdjsonPlaybackRequests {
+
+    private NdjsonPlaybackRequests() {
+    }
+
+    /**
+     * Returns one entry per non-blank line. A malformed line becomes a null entry so the item is reported
+     * as rejected at its position instead of failing the whole batch.
+     */
+    static List<PlaybackRequest> read(BufferedReader reader, ObjectMapper objectMapper, int maxItems) throws IOException {
+        List<PlaybackRequest> requests = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (requests.size() == maxItems) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE);
+            }
+            try {
+                requests.add(objectMapper.readValue(line, PlaybackRequest.class));
+            } catch (JsonProcessingException e) {
+                requests.add(null);
+            }
+        }
+        return requests;
+    }
+}
@@ -7,32 +7,106 @@
  */
 package zw.co.t3ratech.playlizt.playback.controller;
 
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.BatchTrackResponse;
+import zw.co.t3ratech.playlizt.playback.dto.BulkContentAnalyticsRequest;
+import zw.co.t3ratech.playlizt.playback.dto.CohortRetentionResponse;
+import zw.co.t3ratech.playlizt.playback.dto.CoverageResponse;
+import zw.co.t3ratech.playlizt.playback.dto.CursorPage;
+import zw.co.t3ratech.playlizt.playback.dto.LiveViewersResponse;
 import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
 import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.dto.ReachResponse;
+import zw.co.t3ratech.playlizt.playback.dto.RetentionResponse;
+import zw.co.t3ratech.playlizt.playback.dto.TrendingResponse;
+import zw.co.t3ratech.playlizt.playback.dto.WatchTimePercentiles;
+import zw.co.t3ratech.playlizt.playback.entity.ContentStats;
+import zw.co.t3ratech.playlizt.playback.service.AudienceReachService;
+import zw.co.t3ratech.playlizt.playback.service.CohortRetentionService;
+import zw.co.t3ratech.playlizt.playback.service.LiveViewerService;
 import zw.co.t3ratech.playlizt.playback.service.PlaybackService;
+import zw.co.t3ratech.playlizt.playback.service.PlatformStatsService;
+import zw.co.t3ratech.playlizt.playback.service.PositionSyncService;
+import zw.co.t3ratech.playlizt.playback.service.RetentionCurveService;
+import zw.co.t3ratech.playlizt.playback.service.TrendingService;
+import zw.co.t3ratech.playlizt.playback.service.ViewingHistoryExportService;
+import zw.co.t3ratech.playlizt.playback.service.WatchTimeDistributionService;
+import zw.co.t3ratech.playlizt.playback.service.WatchedContentService;
+import zw.co.t3ratech.playlizt.playback.service.WatchedCoverageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/playback")
 @RequiredArgsConstructor
 @Tag(name = "Playback", description = "Video playback and viewing history endpoints")
 public class PlaybackController {
 
     private final PlaybackService playbackService;
+    private final AudienceReachService audienceReachService;
+    private final PlatformStatsService platformStatsService;
+    private final RetentionCurveService retentionCurveService;
+    private final LiveViewerService liveViewerService;
+    private final TrendingService trendingService;
+    private final PositionSyncService positionSyncService;
+    private final WatchedContentService watchedContentService;
+    private final WatchedCoverageService watchedCoverageService;
+    private final WatchTimeDistributionService watchTimeDistributionService;
+    private final CohortRetentionService cohortRetentionService;
+    private final ViewingHistoryExportService viewingHistoryExportService;
+    private final PlaybackProperties playbackProperties;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/track")
     @Operation(summary = "Track playback", description = "Start or update playback session")
     public ResponseEntity<PlaybackResponse> trackPlayback(@Valid @RequestBody PlaybackRequest request) {
-        return ResponseEntity.ok(playbackService.startOrUpdatePlayback(request));
+        PlaybackResponse response = playbackService.startOrUpdatePlayback(request);
+        positionSyncService.broadcast(request.getUserId(), response, null, null);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/track/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Track playback batch", description = "Apply a JSON array of heartbeats, collapsed per user and content, with a result per item")
+    public ResponseEntity<BatchTrackResponse> trackPlaybackBatch(InputStream body) throws IOException {
+        List<PlaybackRequest> requests = JsonPlaybackRequests.read(
+                body, objectMapper, playbackProperties.getBatch().getMaxItems());
+        return ResponseEntity.ok(playbackService.trackBatch(requests));
+    }
+
+    @PostMapping(value = "/track/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Track playback batch (NDJSON)", description = "Apply newline-delimited heartbeats; malformed lines are rejected individually")
+    public ResponseEntity<BatchTrackResponse> trackPlaybackNdjson(InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<PlaybackRequest> requests = NdjsonPlaybackRequests.read(
+                    reader, objectMapper, playbackProperties.getBatch().getMaxItems());
+            return ResponseEntity.ok(playbackService.trackBatch(requests));
+        }
     }
 
     @GetMapping("/status")
@@ -43,6 +117,14 @@ public class PlaybackController {
         return ResponseEntity.ok(playbackService.getPlaybackStatus(userId, contentId));
     }
 
+    @GetMapping("/coverage")
+    @Operation(summary = "Watched coverage", description = "Unique seconds of the content the user has played, with the watched ranges; seeks and re-watches are not double counted")
+    public ResponseEntity<CoverageResponse> getCoverage(
+            @RequestParam Long userId,
+            @RequestParam Long contentId) {
+        return ResponseEntity.ok(watchedCoverageService.getCoverage(userId, contentId));
+    }
+
     @GetMapping("/history")
     @Operation(summary = "Get viewing history", description = "Get all viewing history for a user")
     public ResponseEntity<Page<PlaybackResponse>> getViewingHistory(
@@ -54,40 +136,163 @@ public class PlaybackController {
         return ResponseEntity.ok(playbackService.getViewingHistory(userId, pageRequest));
     }
 
+    @GetMapping(value = "/history/ids", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Watched content ids", description = "Every content id the user has watched, as a portable 64-bit Roaring bitmap")
+    public ResponseEntity<byte[]> getWatchedContentIds(@RequestParam Long userId) {
+        return ResponseEntity.ok(watchedContentService.getWatchedBytes(userId));
+    }
+
+    @GetMapping(value = "/history/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export viewing history", description = "Stream every history row of a user, or of all users updated in [from, to), as NDJSON; gzip-encoded when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportViewingHistory(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        try {
+            viewingHistoryExportService.validate(userId, from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            viewingHistoryExportService.export(userId, from, to, target);
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"viewing-history.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/continue")
-    @Operation(summary = "Continue watching", description = "Get list of partially watched content")
-    public ResponseEntity<Page<PlaybackResponse>> getContinueWatching(
+    @Operation(summary = "Continue watching", description = "Get list of partially watched content, most recent first. Pass nextCursor from the previous response to get the next slice")
+    public ResponseEntity<CursorPage<PlaybackResponse>> getContinueWatching(
             @RequestParam Long userId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
         
+        if (size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            PageRequest pageRequest = PageRequest.of(page, size);
-            return ResponseEntity.ok(playbackService.getContinueWatching(userId, pageRequest));
+            return ResponseEntity.ok(playbackService.getContinueWatching(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             // Log error but return empty page to prevent UI crash
             System.err.println("Error fetching continue watching list: " + e.getMessage());
             e.printStackTrace();
-            return ResponseEntity.ok(Page.empty());
+            return ResponseEntity.ok(CursorPage.empty(size));
         }
     }
 
+    @GetMapping("/live")
+    @Operation(summary = "Watching now", description = "Get concurrent viewers platform-wide and per content, from recent heartbeats")
+    public ResponseEntity<LiveViewersResponse> getLiveViewers(
+            @RequestParam(required = false) List<Long> contentId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(liveViewerService.getLiveViewers(contentId, limit));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Trending content", description = "Get content ranked by time-decayed recent watch activity, optionally within a category")
+    public ResponseEntity<TrendingResponse> getTrending(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(trendingService.getTrending(category, limit));
+    }
+
     @GetMapping("/analytics/content/{contentId}")
-    @Operation(summary = "Content analytics", description = "Get viewing analytics for specific content")
+    @Operation(summary = "Content analytics", description = "Get viewing analytics for specific content, including watch time percentiles per viewing session")
     public ResponseEntity<Map<String, Object>> getContentAnalytics(@PathVariable Long contentId) {
-        Long uniqueViewers = playbackService.getUniqueViewers(contentId);
-        Long totalWatchTime = playbackService.getTotalWatchTime(contentId);
+        return ResponseEntity.ok(toAnalytics(playbackService.getContentStats(contentId),
+                watchTimeDistributionService.getPercentiles(contentId)));
+    }
+
+    @PostMapping("/analytics/content/bulk")
+    @Operation(summary = "Bulk content analytics", description = "Get viewing analytics for many content items in one call")
+    public ResponseEntity<List<Map<String, Object>>> getBulkContentAnalytics(
+            @Valid @RequestBody BulkContentAnalyticsRequest request) {
+        if (request.getContentIds().size() > playbackProperties.getBatch().getMaxItems()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        Map<Long, WatchTimePercentiles> watchTime = watchTimeDistributionService.getPercentiles(request.getContentIds());
+        return ResponseEntity.ok(playbackService.getContentStats(request.getContentIds()).stream()
+                .map(stats -> toAnalytics(stats, watchTime.get(stats.getContentId())))
+                .toList());
+    }
+
+    @GetMapping("/analytics/content/{contentId}/reach")
+    @Operation(summary = "Content reach", description = "Get approximate unique viewers per day and across a date range")
+    public ResponseEntity<ReachResponse> getContentReach(
+            @PathVariable Long contentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         
-        return ResponseEntity.ok(Map.of(
-                "contentId", contentId,
-                "uniqueViewers", uniqueViewers,
-                "totalWatchTimeSeconds", totalWatchTime
-        ));
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        try {
+            return ResponseEntity.ok(audienceReachService.getReach(contentId, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/analytics/content/{contentId}/retention")
+    @Operation(summary = "Content retention", description = "Get the share of viewers reaching each 5% of the content")
+    public ResponseEntity<RetentionResponse> getContentRetention(@PathVariable Long contentId) {
+        return ResponseEntity.ok(retentionCurveService.getRetention(contentId));
+    }
+
+    @PostMapping("/analytics/content-stats/rebuild")
+    @Operation(summary = "Rebuild content analytics", description = "Recompute the per-content rollup from viewing history (Admin only)")
+    public ResponseEntity<Map<String, Integer>> rebuildContentStats() {
+        return ResponseEntity.ok(Map.of("rebuiltContent", playbackService.rebuildContentStats()));
     }
     
+    @GetMapping("/analytics/cohorts")
+    @Operation(summary = "Cohort retention", description = "Get the share of each day's new viewers who were active again n days later (Admin only)")
+    public ResponseEntity<CohortRetentionResponse> getCohortRetention(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1,7,30") List<Integer> days) {
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        try {
+            return ResponseEntity.ok(cohortRetentionService.getRetention(start, end, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/analytics/platform")
     @Operation(summary = "Platform analytics", description = "Get global platform analytics (Admin only)")
-    public ResponseEntity<Map<String, Long>> getPlatformAnalytics() {
-        return ResponseEntity.ok(playbackService.getPlatformAnalytics());
+    public ResponseEntity<Map<String, Object>> getPlatformAnalytics() {
+        return ResponseEntity.ok(platformStatsService.getPlatformAnalytics());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    static Map<String, Object> toAnalytics(ContentStats stats, WatchTimePercentiles watchTime) {
+        return Map.of(
+                "contentId", stats.getContentId(),
+                "uniqueViewers", stats.getUniqueViewers(),
+                "totalWatchTimeSeconds", stats.getTotalWatchTimeSeconds(),
+                "completions", stats.getCompletions(),
+                "starts", stats.getStarts(),
+                "sessionWatchTimeSeconds", watchTime
+        );
     }
 }
@@ -0,0 +1,101 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:26
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.controller;
+
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.service.PlaybackService;
+import zw.co.t3ratech.playlizt.playback.service.PositionSyncService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Position sync socket at /api/v1/playback/sync. Each text frame is a heartbeat in the /track body format
+ * (userId is taken from the connection), applied through {@link PlaybackService#startOrUpdatePlayback} and
+ * pushed to the user's other connected devices as a {@link zw.co.t3ratech.playlizt.playback.dto.PositionUpdate}.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class PlaybackSyncHandler extends TextWebSocketHandler {
+
+    private static final String SYNC_SESSION = "syncSession";
+
+    private final PlaybackService playbackService;
+    private final PositionSyncService positionSyncService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        try {
+            session.getAttributes().put(SYNC_SESSION, positionSyncService.register(userId(session), session));
+        } catch (IllegalStateException e) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(e.getMessage()));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Long userId = userId(session);
+        PlaybackRequest request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), PlaybackRequest.class);
+        } catch (JsonProcessingException e) {
+            sendError(session, "Malformed position update");
+            return;
+        }
+        request.setUserId(userId);
+
+        Set<ConstraintViolation<PlaybackRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            sendError(session, violations.iterator().next().getMessage());
+            return;
+        }
+
+        PlaybackResponse response;
+        try {
+            response = playbackService.startOrUpdatePlayback(request);
+        } catch (RuntimeException e) {
+            log.error("Failed to record synced position for user {} on content {}", userId, request.getContentId(), e);
+            sendError(session, "Failed to record position");
+            return;
+        }
+        positionSyncService.broadcast(userId, response, session.getId(),
+                (String) session.getAttributes().get(PlaybackSyncHandshakeInterceptor.DEVICE_ID));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        positionSyncService.unregister(userId(session), session);
+    }
+
+    private void sendError(WebSocketSession session, String error) throws IOException {
+        WebSocketSession out = (WebSocketSession) session.getAttributes().getOrDefault(SYNC_SESSION, session);
+        out.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("type", "error", "message", error))));
+    }
+
+    private static Long userId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(PlaybackSyncHandshakeInterceptor.USER_ID);
+    }
+}
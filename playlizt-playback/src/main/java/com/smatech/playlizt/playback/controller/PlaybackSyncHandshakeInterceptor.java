@@ -0,0 +1,50 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:20
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binds the sync socket to a user from the {@code userId} query parameter, as the HTTP endpoints do.
+ * {@code deviceId} is optional and only echoed back to the other devices.
+ */
+public class PlaybackSyncHandshakeInterceptor implements HandshakeInterceptor {
+
+    static final String USER_ID = "userId";
+    static final String DEVICE_ID = "deviceId";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Map<String, String> params = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().toSingleValueMap();
+        Long userId;
+        try {
+            userId = Long.valueOf(params.get(USER_ID));
+        } catch (NumberFormatException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+        String deviceId = params.get(DEVICE_ID);
+        attributes.put(USER_ID, userId);
+        attributes.put(DEVICE_ID, deviceId != null && !deviceId.isBlank() ? deviceId : UUID.randomUUID().toString());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 20:05
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.controller;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.BulkContentAnalyticsRequest;
+import zw.co.t3ratech.playlizt.playback.dto.CursorPage;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.dto.WatchTimePercentiles;
+import zw.co.t3ratech.playlizt.playback.service.AudienceReachService;
+import zw.co.t3ratech.playlizt.playback.service.CohortRetentionService;
+import zw.co.t3ratech.playlizt.playback.service.LiveViewerService;
+import zw.co.t3ratech.playlizt.playback.service.PlatformStatsService;
+import zw.co.t3ratech.playlizt.playback.service.PlaybackService;
+import zw.co.t3ratech.playlizt.playback.service.ReactivePlaybackService;
+import zw.co.t3ratech.playlizt.playback.service.RetentionCurveService;
+import zw.co.t3ratech.playlizt.playback.service.TrendingService;
+import zw.co.t3ratech.playlizt.playback.service.ViewingHistoryExportService;
+import zw.co.t3ratech.playlizt.playback.service.WatchTimeDistributionService;
+import zw.co.t3ratech.playlizt.playback.service.WatchedContentService;
+import zw.co.t3ratech.playlizt.playback.service.WatchedCoverageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * WebFlux handlers behind the "reactive" profile, mirroring the {@link PlaybackController} contract.
+ * Heartbeats and status are non-blocking end to end over R2DBC; the remaining endpoints call the JPA
+ * services on the bounded elastic scheduler so the event loop never waits on JDBC.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePlaybackHandler {
+
+    private final ReactivePlaybackService reactivePlaybackService;
+    private final PlaybackService playbackService;
+    private final AudienceReachService audienceReachService;
+    private final PlatformStatsService platformStatsService;
+    private final RetentionCurveService retentionCurveService;
+    private final LiveViewerService liveViewerService;
+    private final TrendingService trendingService;
+    private final WatchedContentService watchedContentService;
+    private final WatchedCoverageService watchedCoverageService;
+    private final WatchTimeDistributionService watchTimeDistributionService;
+    private final CohortRetentionService cohortRetentionService;
+    private final ViewingHistoryExportService viewingHistoryExportService;
+    private final PlaybackProperties playbackProperties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public Mono<ServerResponse> trackPlayback(ServerRequest request) {
+        return request.bodyToMono(PlaybackRequest.class)
+                .switchIfEmpty(Mono.error(new ServerWebInputException("Request body is required")))
+                .doOnNext(this::validate)
+                .flatMap(reactivePlaybackService::startOrUpdatePlayback)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> trackPlaybackBatch(ServerRequest request) {
+        int maxBytes = (int) playbackProperties.getBatch().getMaxBytes().toBytes();
+        return DataBufferUtils.join(request.body(BodyExtractors.toDataBuffers()), maxBytes)
+                .map(buffer -> buffer.asInputStream(true))
+                .flatMap(body -> ok(() -> {
+                    try (body) {
+                        return playbackService.trackBatch(JsonPlaybackRequests.read(
+                                body, objectMapper, playbackProperties.getBatch().getMaxItems()));
+                    }
+                }))
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+    }
+
+    public Mono<ServerResponse> trackPlaybackNdjson(ServerRequest request) {
+        int maxBytes = (int) playbackProperties.getBatch().getMaxBytes().toBytes();
+        return DataBufferUtils.join(request.body(BodyExtractors.toDataBuffers()), maxBytes)
+                .map(buffer -> buffer.asInputStream(true))
+                .flatMap(body -> ok(() -> {
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                        List<PlaybackRequest> requests = NdjsonPlaybackRequests.read(
+                                reader, objectMapper, playbackProperties.getBatch().getMaxItems());
+                        return playbackService.trackBatch(requests);
+                    }
+                }))
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+    }
+
+    public Mono<ServerResponse> getPlaybackStatus(ServerRequest request) {
+        return reactivePlaybackService.getPlaybackStatus(longParam(request, "userId"), longParam(request, "contentId"))
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> getCoverage(ServerRequest request) {
+        Long userId = longParam(request, "userId");
+        Long contentId = longParam(request, "contentId");
+        return ok(() -> watchedCoverageService.getCoverage(userId, contentId));
+    }
+
+    public Mono<ServerResponse> getViewingHistory(ServerRequest request) {
+        Long userId = longParam(request, "userId");
+        PageRequest pageRequest = PageRequest.of(intParam(request, "page", 0), intParam(request, "size", 20));
+        return ok(() -> playbackService.getViewingHistory(userId, pageRequest));
+    }
+
+    public Mono<ServerResponse> getWatchedContentIds(ServerRequest request) {
+        Long userId = longParam(request, "userId");
+        return blocking(() -> watchedContentService.getWatchedBytes(userId))
+                .flatMap(bytes -> ServerResponse.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).bodyValue(bytes));
+    }
+
+    public Mono<ServerResponse> exportViewingHistory(ServerRequest request) {
+        Long userId = request.queryParam("userId").map(value -> parseLong("userId", value)).orElse(null);
+        LocalDateTime from = dateTimeParam(request, "from");
+        LocalDateTime to = dateTimeParam(request, "to");
+        try {
+            viewingHistoryExportService.validate(userId, from, to);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+        boolean gzip = PlaybackController.acceptsGzip(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING));
+        // The export writes to a blocking stream from a bounded-elastic worker, one buffer at a time
+        Publisher<DataBuffer> body = DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+                viewingHistoryExportService.export(userId, from, to, target);
+                if (target instanceof GZIPOutputStream compressed) {
+                    compressed.finish();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, DefaultDataBufferFactory.sharedInstance, task -> Schedulers.boundedElastic().schedule(task));
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"viewing-history.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(BodyInserters.fromDataBuffers(body));
+    }
+
+    public Mono<ServerResponse> getContinueWatching(ServerRequest request) {
+        Long userId = longParam(request, "userId");
+        String cursor = request.queryParam("cursor").orElse(null);
+        int size = intParam(request, "size", 10);
+        if (size < 1 || size > 100) {
+            return ServerResponse.badRequest().build();
+        }
+        return blocking(() -> playbackService.getContinueWatching(userId, cursor, size))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page))
+                .onErrorResume(e -> {
+                    if (e instanceof IllegalArgumentException) {
+                        return ServerResponse.badRequest().build();
+                    }
+                    // Same fallback as the servlet controller: an empty page keeps the UI rendering
+                    log.error("Error fetching continue watching list: {}", e.getMessage(), e);
+                    return ServerResponse.ok().bodyValue(CursorPage.empty(size));
+                });
+    }
+
+    public Mono<ServerResponse> getLiveViewers(ServerRequest request) {
+        List<Long> contentIds = longListParam(request, "contentId");
+        int limit = intParam(request, "limit", 20);
+        return ok(() -> liveViewerService.getLiveViewers(contentIds, limit));
+    }
+
+    public Mono<ServerResponse> getTrending(ServerRequest request) {
+        String category = request.queryParam("category").orElse(null);
+        int limit = intParam(request, "limit", 20);
+        return ok(() -> trendingService.getTrending(category, limit));
+    }
+
+    public Mono<ServerResponse> getContentAnalytics(ServerRequest request) {
+        Long contentId = longPathVariable(request);
+        return ok(() -> PlaybackController.toAnalytics(playbackService.getContentStats(contentId),
+                watchTimeDistributionService.getPercentiles(contentId)));
+    }
+
+    public Mono<ServerResponse> getBulkContentAnalytics(ServerRequest request) {
+        return request.bodyToMono(BulkContentAnalyticsRequest.class)
+                .switchIfEmpty(Mono.error(new ServerWebInputException("Request body is required")))
+                .doOnNext(this::validate)
+                .flatMap(body -> body.getContentIds().size() > playbackProperties.getBatch().getMaxItems()
+                        ? ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE).build()
+                        : ok(() -> {
+                            Map<Long, WatchTimePercentiles> watchTime =
+                                    watchTimeDistributionService.getPercentiles(body.getContentIds());
+                            return playbackService.getContentStats(body.getContentIds()).stream()
+                                    .map(stats -> PlaybackController.toAnalytics(stats, watchTime.get(stats.getContentId())))
+                                    .toList();
+                        }));
+    }
+
+    public Mono<ServerResponse> getContentReach(ServerRequest request) {
+        Long contentId = longPathVariable(request);
+        LocalDate end = dateParam(request, "to", LocalDate.now());
+        LocalDate start = dateParam(request, "from", end.minusDays(29));
+        return okOrBadRequest(() -> audienceReachService.getReach(contentId, start, end));
+    }
+
+    public Mono<ServerResponse> getContentRetention(ServerRequest request) {
+        Long contentId = longPathVariable(request);
+        return ok(() -> retentionCurveService.getRetention(contentId));
+    }
+
+    public Mono<ServerResponse> rebuildContentStats(ServerRequest request) {
+        return ok(() -> Map.of("rebuiltContent", playbackService.rebuildContentStats()));
+    }
+
+    public Mono<ServerResponse> getCohortRetention(ServerRequest request) {
+        LocalDate end = dateParam(request, "to", LocalDate.now());
+        LocalDate start = dateParam(request, "from", end.minusDays(29));
+        List<Long> offsets = longListParam(request, "days");
+        List<Integer> days = offsets != null ? offsets.stream().map(Long::intValue).toList() : List.of(1, 7, 30);
+        return okOrBadRequest(() -> cohortRetentionService.getRetention(start, end, days));
+    }
+
+    public Mono<ServerResponse> getPlatformAnalytics(ServerRequest request) {
+        return ok(platformStatsService::getPlatformAnalytics);
+    }
+
+    private Mono<ServerResponse> ok(Callable<?> call) {
+        return blocking(call).flatMap(body -> ServerResponse.ok().bodyValue(body));
+    }
+
+    // For calls that reject their arguments with IllegalArgumentException, as the servlet controller maps them
+    private Mono<ServerResponse> okOrBadRequest(Callable<?> call) {
+        return ok(call).onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().build());
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private <T> void validate(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static Long longParam(ServerRequest request, String name) {
+        String value = request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Missing request parameter '" + name + "'"));
+        return parseLong(name, value);
+    }
+
+    private static Long longPathVariable(ServerRequest request) {
+        return parseLong("contentId", request.pathVariable("contentId"));
+    }
+
+    private static List<Long> longListParam(ServerRequest request, String name) {
+        List<String> values = request.queryParams().get(name);
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .filter(value -> !value.isBlank())
+                .map(value -> parseLong(name, value.trim()))
+                .toList();
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name)
+                .map(value -> parseLong(name, value).intValue())
+                .orElse(defaultValue);
+    }
+
+    private static LocalDate dateParam(ServerRequest request, String name, LocalDate defaultValue) {
+        try {
+            return request.queryParam(name).map(LocalDate::parse).orElse(defaultValue);
+        } catch (DateTimeParseException e) {
+            throw new ServerWebInputException("Invalid date for parameter '" + name + "'");
+        }
+    }
+
+    private static LocalDateTime dateTimeParam(ServerRequest request, String name) {
+        try {
+            return request.queryParam(name).map(LocalDateTime::parse).orElse(null);
+        } catch (DateTimeParseException e) {
+            throw new ServerWebInputException("Invalid date-time for parameter '" + name + "'");
+        }
+    }
+
+    private static Long parseLong(String name, String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid value for parameter '" + name + "'");
+        }
+    }
+}
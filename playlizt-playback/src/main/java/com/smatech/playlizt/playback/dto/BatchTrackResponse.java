@@ -0,0 +1,44 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 14:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTrackResponse {
+    private int received;
+    private int applied;
+    private int rejected;
+    // One entry per submitted item, in submission order
+    private List<ItemResult> results;
+
+    public enum Status {
+        APPLIED,
+        REJECTED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private Status status;
+        private String error;
+        // Final state of the item's (userId, contentId) pair after the whole batch was applied
+        private PlaybackResponse playback;
+    }
+}
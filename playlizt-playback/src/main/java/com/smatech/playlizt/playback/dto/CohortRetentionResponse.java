@@ -0,0 +1,51 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 23:56
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortRetentionResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private List<Integer> dayOffsets;
+    // Viewers active in this many days before a cohort day are not counted as new on it
+    private Integer lookbackDays;
+    private List<Cohort> cohorts;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cohort {
+        private LocalDate day;
+        private Long newViewers;
+        // One cell per requested offset, in the same order
+        private List<Cell> retention;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cell {
+        private Integer dayOffset;
+        // Null while the offset day has not happened yet
+        private Long retainedViewers;
+        private Double percentRetained;
+    }
+}
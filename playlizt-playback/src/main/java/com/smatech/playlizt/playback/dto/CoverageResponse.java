@@ -0,0 +1,39 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 22:41
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoverageResponse {
+    private Long userId;
+    private Long contentId;
+    private Integer uniqueSecondsWatched;
+    private Integer durationSeconds;
+    // Null until a heartbeat has reported the content's duration
+    private Double coveragePercent;
+    private List<WatchedRange> watchedRanges;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WatchedRange {
+        private Integer startSecond;
+        // Exclusive
+        private Integer endSecond;
+    }
+}
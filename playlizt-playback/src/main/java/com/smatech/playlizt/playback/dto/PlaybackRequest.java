@@ -9,6 +9,7 @@ package zw.co.t3ratech.playlizt.playback.dto;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,4 +31,12 @@ public class PlaybackRequest {
     private Integer positionSeconds;
 
     private Boolean completed = false;
+
+    // Optional; lets the service place positions on the content's retention curve
+    @Min(value = 1, message = "Duration must be positive")
+    private Integer durationSeconds;
+
+    // Optional; groups the content in per-category trending
+    @Size(max = 100, message = "Category must be at most 100 characters")
+    private String category;
 }
@@ -0,0 +1,47 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:05
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Frame pushed over the sync socket when one of the user's devices moves to a new position.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PositionUpdate {
+    public static final String TYPE = "position";
+
+    private String type;
+    private Long contentId;
+    private Integer positionSeconds;
+    private Boolean completed;
+    private LocalDateTime updatedAt;
+    // Device that reported the position, when it came over the socket
+    private String deviceId;
+
+    public static PositionUpdate of(PlaybackResponse playback, String deviceId) {
+        return PositionUpdate.builder()
+                .type(TYPE)
+                .contentId(playback.getContentId())
+                .positionSeconds(playback.getLastPositionSeconds())
+                .completed(playback.getCompleted())
+                .updatedAt(playback.getUpdatedAt())
+                .deviceId(deviceId)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 12:22
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * HyperLogLog registers of the users who watched a content item on one day.
+ */
+@Entity
+@Table(name = "content_reach_sketch")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentReachSketch {
+
+    @EmbeddedId
+    private ContentDayId id;
+
+    @Column(nullable = false)
+    private byte[] registers;
+
+    @Column(nullable = false, name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 16:14
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retention histogram of a content item: viewers by furthest 5% bucket reached, as 21 big-endian ints.
+ */
+@Entity
+@Table(name = "content_retention")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentRetention {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Column(nullable = false, name = "duration_seconds")
+    private Integer durationSeconds;
+
+    @Column(nullable = false)
+    private byte[] buckets;
+
+    @Column(nullable = false, name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 11:05
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-content rollup of viewing_history, maintained by the playback upsert statement.
+ */
+@Entity
+@Table(name = "content_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentStats {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Column(name = "unique_viewers", nullable = false)
+    private Long uniqueViewers = 0L;
+
+    @Column(name = "total_watch_time_seconds", nullable = false)
+    private Long totalWatchTimeSeconds = 0L;
+
+    @Column(nullable = false)
+    private Long completions = 0L;
+
+    @Column(nullable = false)
+    private Long starts = 0L;
+
+    @Column(nullable = false, name = "updated_at")
+    private LocalDateTime updatedAt;
+}
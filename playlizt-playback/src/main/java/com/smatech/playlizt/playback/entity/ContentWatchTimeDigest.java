@@ -0,0 +1,39 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 23:18
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * t-digest of the watch time of finished viewing sessions of a content item, serialised by
+ * {@link zw.co.t3ratech.playlizt.playback.analytics.TDigest}.
+ */
+@Entity
+@Table(name = "content_watch_time_digest")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentWatchTimeDigest {
+
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+
+    @Column(nullable = false)
+    private byte[] centroids;
+
+    @Column(nullable = false)
+    private Long sessions;
+
+    @Column(nullable = false, name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,39 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 23:52
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Every user who played anything on one day, as a portable 64-bit Roaring bitmap of user ids.
+ */
+@Entity
+@Table(name = "daily_active_viewers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyActiveViewers {
+
+    @Id
+    @Column(name = "view_date")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private byte[] bitmap;
+
+    @Column(nullable = false)
+    private Long viewers;
+
+    @Column(nullable = false, name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 22:34
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seconds of a content item a user has actually played, run-length encoded by
+ * {@link zw.co.t3ratech.playlizt.playback.analytics.WatchedSeconds}.
+ */
+@Entity
+@Table(name = "viewing_coverage")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewingCoverage {
+
+    @EmbeddedId
+    private UserContentId id;
+
+    @Column(nullable = false)
+    private byte[] runs;
+
+    @Column(nullable = false, name = "unique_seconds")
+    private Integer uniqueSeconds;
+
+    @Column(name = "duration_seconds")
+    private Integer durationSeconds;
+
+    @Column(nullable = false, name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -15,8 +15,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "viewing_history", indexes = {
-    @Index(name = "idx_viewing_user", columnList = "user_id"),
+@Table(name = "viewing_history", uniqueConstraints = {
+    // Also serves user_id lookups as its leading column; required by the ON CONFLICT upsert
+    @UniqueConstraint(name = "uk_viewing_user_content", columnNames = {"user_id", "content_id"})
+}, indexes = {
     @Index(name = "idx_viewing_content", columnList = "content_id"),
     @Index(name = "idx_viewing_updated", columnList = "updated_at")
 })
@@ -42,6 +44,10 @@ public class ViewingHistory {
     @Column(name = "last_position_seconds", nullable = false)
     private Integer lastPositionSeconds = 0;
 
+    // Furthest position reached; unlike last_position_seconds it does not follow seeks backwards
+    @Column(name = "max_position_seconds", nullable = false)
+    private Integer maxPositionSeconds = 0;
+
     @Column(nullable = false)
     private Boolean completed = false;
 
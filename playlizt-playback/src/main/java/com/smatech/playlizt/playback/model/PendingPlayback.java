@@ -0,0 +1,117 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 09:20
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.model;
+
+import lombok.Builder;
+import lombok.Value;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeats for one (userId, contentId) pair that have not been written to viewing_history yet.
+ * <p>
+ * The first position is kept apart from the accumulated watch time so that the forward jump from the
+ * stored row can still be resolved at write time, giving the same result as applying every heartbeat
+ * one by one.
+ */
+@Value
+@Builder
+public class PendingPlayback {
+    Long userId;
+    Long contentId;
+    Integer firstPositionSeconds;
+    Integer lastPositionSeconds;
+    Integer maxPositionSeconds;
+    int extraWatchSeconds;
+    boolean completed;
+    LocalDateTime updatedAt;
+    Integer durationSeconds;
+    String category;
+
+    public static PendingPlayback of(PlaybackRequest request, LocalDateTime now) {
+        return PendingPlayback.builder()
+                .userId(request.getUserId())
+                .contentId(request.getContentId())
+                .firstPositionSeconds(request.getPositionSeconds())
+                .lastPositionSeconds(request.getPositionSeconds())
+                .maxPositionSeconds(request.getPositionSeconds())
+                .extraWatchSeconds(0)
+                .completed(Boolean.TRUE.equals(request.getCompleted()))
+                .updatedAt(now)
+                .durationSeconds(request.getDurationSeconds())
+                .category(request.getCategory())
+                .build();
+    }
+
+    /**
+     * Merges a newer pending state for the same pair on top of this one.
+     */
+    public PendingPlayback then(PendingPlayback newer) {
+        Integer first = firstPositionSeconds;
+        Integer last = lastPositionSeconds;
+        int extra = extraWatchSeconds + newer.extraWatchSeconds;
+
+        if (lastPositionSeconds == null) {
+            first = newer.firstPositionSeconds;
+            last = newer.lastPositionSeconds;
+        } else if (newer.firstPositionSeconds != null) {
+            extra += Math.max(newer.firstPositionSeconds - lastPositionSeconds, 0);
+            last = newer.lastPositionSeconds;
+        }
+
+        return PendingPlayback.builder()
+                .userId(userId)
+                .contentId(contentId)
+                .firstPositionSeconds(first)
+                .lastPositionSeconds(last)
+                .maxPositionSeconds(max(maxPositionSeconds, newer.maxPositionSeconds))
+                .extraWatchSeconds(extra)
+                .completed(completed || newer.completed)
+                .updatedAt(newer.updatedAt)
+                .durationSeconds(newer.durationSeconds != null ? newer.durationSeconds : durationSeconds)
+                .category(newer.category != null ? newer.category : category)
+                .build();
+    }
+
+    /**
+     * Returns the row as it will look once this pending state has been written. {@code stored} may be null
+     * when no row exists yet.
+     */
+    public ViewingHistory applyTo(ViewingHistory stored) {
+        int watchTime = stored != null ? stored.getWatchTimeSeconds() : 0;
+        int position = stored != null ? stored.getLastPositionSeconds() : 0;
+        int maxPosition = stored != null && stored.getMaxPositionSeconds() != null ? stored.getMaxPositionSeconds() : 0;
+
+        if (firstPositionSeconds != null) {
+            watchTime += Math.max(firstPositionSeconds - position, 0);
+            position = lastPositionSeconds;
+        }
+        watchTime += extraWatchSeconds;
+
+        return ViewingHistory.builder()
+                .id(stored != null ? stored.getId() : null)
+                .userId(userId)
+                .contentId(contentId)
+                .watchTimeSeconds(watchTime)
+                .lastPositionSeconds(position)
+                .maxPositionSeconds(Math.max(maxPosition, maxPositionSeconds != null ? maxPositionSeconds : 0))
+                .completed((stored != null && Boolean.TRUE.equals(stored.getCompleted())) || completed)
+                .createdAt(stored != null ? stored.getCreatedAt() : null)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private static Integer max(Integer a, Integer b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : Math.max(a, b);
+    }
+}
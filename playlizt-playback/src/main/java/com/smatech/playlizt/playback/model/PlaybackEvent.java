@@ -0,0 +1,31 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 15:10
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.model;
+
+import lombok.Value;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * One heartbeat as received, before any coalescing. viewing_history is the compacted view of these
+ * events: the latest state per (userId, contentId).
+ */
+@Value(staticConstructor = "of")
+public class PlaybackEvent {
+    Long userId;
+    Long contentId;
+    Integer positionSeconds;
+    boolean completed;
+    LocalDateTime occurredAt;
+
+    public static PlaybackEvent of(PlaybackRequest request, LocalDateTime occurredAt) {
+        return of(request.getUserId(), request.getContentId(), request.getPositionSeconds(),
+                Boolean.TRUE.equals(request.getCompleted()), occurredAt);
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 09:18
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.model;
+
+import lombok.Value;
+
+@Value(staticConstructor = "of")
+public class PlaybackKey {
+    Long userId;
+    Long contentId;
+}
@@ -0,0 +1,46 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 13:26
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.model;
+
+import lombok.Builder;
+import lombok.Value;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+
+/**
+ * Outcome of merging one pending state into viewing_history: the row as written plus the values it
+ * replaced, so callers can derive deltas without a second read.
+ */
+@Value
+@Builder
+public class PlaybackUpsert {
+    ViewingHistory history;
+    boolean inserted;
+    int previousWatchTimeSeconds;
+    Integer previousPositionSeconds;
+    Integer previousMaxPositionSeconds;
+    boolean previouslyCompleted;
+
+    public static PlaybackUpsert of(PendingPlayback pending, ViewingHistory previous) {
+        return PlaybackUpsert.builder()
+                .history(pending.applyTo(previous))
+                .inserted(previous == null)
+                .previousWatchTimeSeconds(previous != null ? previous.getWatchTimeSeconds() : 0)
+                .previousPositionSeconds(previous != null ? previous.getLastPositionSeconds() : null)
+                .previousMaxPositionSeconds(previous != null ? previous.getMaxPositionSeconds() : null)
+                .previouslyCompleted(previous != null && Boolean.TRUE.equals(previous.getCompleted()))
+                .build();
+    }
+
+    public int getWatchTimeDeltaSeconds() {
+        return history.getWatchTimeSeconds() - previousWatchTimeSeconds;
+    }
+
+    public boolean isNewlyCompleted() {
+        return Boolean.TRUE.equals(history.getCompleted()) && !previouslyCompleted;
+    }
+}
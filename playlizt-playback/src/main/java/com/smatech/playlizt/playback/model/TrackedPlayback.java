@@ -0,0 +1,56 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 11:52
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Published as an application event once a heartbeat has been written to viewing_history, either directly
+ * or by the write-behind flusher. In-memory analytics listen for it instead of reading viewing_history.
+ */
+@Value
+@Builder
+public class TrackedPlayback {
+    Long userId;
+    Long contentId;
+    Integer positionSeconds;
+    Integer previousPositionSeconds;
+    int maxPositionSeconds;
+    Integer previousMaxPositionSeconds;
+    Integer durationSeconds;
+    String category;
+    int watchTimeSeconds;
+    int watchTimeDeltaSeconds;
+    boolean newSession;
+    boolean completed;
+    boolean newlyCompleted;
+    LocalDateTime trackedAt;
+
+    public static TrackedPlayback of(PendingPlayback pending, PlaybackUpsert upsert) {
+        return TrackedPlayback.builder()
+                .userId(pending.getUserId())
+                .contentId(pending.getContentId())
+                .positionSeconds(upsert.getHistory().getLastPositionSeconds())
+                .previousPositionSeconds(upsert.getPreviousPositionSeconds())
+                .maxPositionSeconds(Objects.requireNonNullElse(upsert.getHistory().getMaxPositionSeconds(), 0))
+                .previousMaxPositionSeconds(upsert.getPreviousMaxPositionSeconds())
+                .durationSeconds(pending.getDurationSeconds())
+                .category(pending.getCategory())
+                .watchTimeSeconds(upsert.getHistory().getWatchTimeSeconds())
+                .watchTimeDeltaSeconds(upsert.getWatchTimeDeltaSeconds())
+                .newSession(upsert.isInserted())
+                .completed(Boolean.TRUE.equals(upsert.getHistory().getCompleted()))
+                .newlyCompleted(upsert.isNewlyCompleted())
+                .trackedAt(pending.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 12:25
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.repository;
+
+import zw.co.t3ratech.playlizt.playback.entity.ContentDayId;
+import zw.co.t3ratech.playlizt.playback.entity.ContentReachSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ContentReachSketchRepository extends JpaRepository<ContentReachSketch, ContentDayId> {
+
+    List<ContentReachSketch> findByIdContentIdAndIdDayBetween(Long contentId, LocalDate from, LocalDate to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ContentReachSketch s WHERE s.id = :id")
+    Optional<ContentReachSketch> findForUpdate(@Param("id") ContentDayId id);
+}
@@ -0,0 +1,48 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 11:09
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.repository;
+
+import zw.co.t3ratech.playlizt.playback.entity.ContentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContentStatsRepository extends JpaRepository<ContentStats, Long> {
+
+    // One row per (user, content) pair, so summed unique viewers equals the number of viewing sessions
+    @Query("SELECT COALESCE(SUM(cs.uniqueViewers), 0) FROM ContentStats cs")
+    Long sumUniqueViewers();
+
+    @Query("SELECT COALESCE(SUM(cs.totalWatchTimeSeconds), 0) FROM ContentStats cs")
+    Long sumTotalWatchTime();
+
+    // Replays are not retained in viewing_history, so starts can only be raised to at least one per viewer
+    @Modifying
+    @Query(value = """
+            INSERT INTO content_stats AS cs
+                (content_id, unique_viewers, total_watch_time_seconds, completions, starts, updated_at)
+            SELECT content_id, COUNT(*), COALESCE(SUM(watch_time_seconds), 0),
+                   COUNT(*) FILTER (WHERE completed), COUNT(*), LOCALTIMESTAMP
+            FROM viewing_history
+            GROUP BY content_id
+            ON CONFLICT (content_id) DO UPDATE SET
+                unique_viewers = EXCLUDED.unique_viewers,
+                total_watch_time_seconds = EXCLUDED.total_watch_time_seconds,
+                completions = EXCLUDED.completions,
+                starts = GREATEST(cs.starts, EXCLUDED.starts),
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int rebuildFromHistory();
+
+    @Modifying
+    @Query(value = "DELETE FROM content_stats cs WHERE NOT EXISTS " +
+            "(SELECT 1 FROM viewing_history vh WHERE vh.content_id = cs.content_id)", nativeQuery = true)
+    int deleteOrphaned();
+}
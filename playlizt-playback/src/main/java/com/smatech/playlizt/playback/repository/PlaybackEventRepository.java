@@ -0,0 +1,79 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 15:14
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.repository;
+
+import zw.co.t3ratech.playlizt.playback.model.PlaybackEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * JDBC access to playback_events, which is range partitioned by day (see schema-postgresql.sql) and so is
+ * not mapped as a JPA entity. Partitions are named {@code playback_events_pYYYYMMDD}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PlaybackEventRepository {
+
+    public static final String PARTITION_PREFIX = "playback_events_p";
+    public static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO playback_events (user_id, content_id, position_seconds, completed, occurred_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String PARTITIONS_SQL = """
+            SELECT child.relname
+            FROM pg_inherits i
+            JOIN pg_class parent ON parent.oid = i.inhparent
+            JOIN pg_class child ON child.oid = i.inhrelid
+            JOIN pg_namespace n ON n.oid = parent.relnamespace
+            WHERE parent.relname = 'playback_events' AND n.nspname = current_schema()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<PlaybackEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getUserId());
+            ps.setLong(2, event.getContentId());
+            if (event.getPositionSeconds() != null) {
+                ps.setInt(3, event.getPositionSeconds());
+            } else {
+                ps.setNull(3, Types.INTEGER);
+            }
+            ps.setBoolean(4, event.isCompleted());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                + " PARTITION OF playback_events FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+    }
+
+    // Dropping a whole day is a metadata operation, unlike a DELETE that rewrites and vacuums rows
+    public void dropPartition(LocalDate day) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(day));
+    }
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 19:20
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.repository;
+
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of the heartbeat path in {@link ViewingHistoryRepositoryCustomImpl}, running the
+ * same upsert statement over R2DBC for the reactive stack.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveViewingHistoryRepository {
+
+    private static final String FIND_SQL = """
+            SELECT id, user_id, content_id, watch_time_seconds, last_position_seconds, max_position_seconds,
+                   completed, created_at, updated_at
+            FROM viewing_history
+            WHERE user_id = :userId AND content_id = :contentId
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveViewingHistoryRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<PlaybackUpsert> upsert(PendingPlayback pending) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(ViewingHistoryRepositoryCustomImpl.UPSERT_RETURNING_SQL)
+                .bind("userId", pending.getUserId())
+                .bind("contentId", pending.getContentId())
+                .bind("extraWatch", pending.getExtraWatchSeconds())
+                .bind("completed", pending.isCompleted())
+                .bind("updatedAt", pending.getUpdatedAt());
+        spec = bindNullable(spec, "firstPosition", pending.getFirstPositionSeconds());
+        spec = bindNullable(spec, "lastPosition", pending.getLastPositionSeconds());
+        spec = bindNullable(spec, "maxPosition", pending.getMaxPositionSeconds());
+
+        return spec.map(row -> {
+            Integer previousPosition = row.get("previous_position_seconds", Integer.class);
+            Integer previousWatchTime = row.get("previous_watch_time_seconds", Integer.class);
+            return PlaybackUpsert.builder()
+                    .history(toHistory(row))
+                    .inserted(Boolean.TRUE.equals(row.get("inserted", Boolean.class)))
+                    .previousWatchTimeSeconds(previousWatchTime != null ? previousWatchTime : 0)
+                    .previousPositionSeconds(previousPosition)
+                    .previousMaxPositionSeconds(row.get("previous_max_position_seconds", Integer.class))
+                    .previouslyCompleted(Boolean.TRUE.equals(row.get("previously_completed", Boolean.class)))
+                    .build();
+        }).one();
+    }
+
+    public Mono<ViewingHistory> findByUserIdAndContentId(Long userId, Long contentId) {
+        return databaseClient.sql(FIND_SQL)
+                .bind("userId", userId)
+                .bind("contentId", contentId)
+                .map(ReactiveViewingHistoryRepository::toHistory)
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, Integer value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, Integer.class);
+    }
+
+    private static ViewingHistory toHistory(Readable row) {
+        return ViewingHistory.builder()
+                .id(row.get("id", Long.class))
+                .userId(row.get("user_id", Long.class))
+                .contentId(row.get("content_id", Long.class))
+                .watchTimeSeconds(row.get("watch_time_seconds", Integer.class))
+                .lastPositionSeconds(row.get("last_position_seconds", Integer.class))
+                .maxPositionSeconds(row.get("max_position_seconds", Integer.class))
+                .completed(row.get("completed", Boolean.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -15,17 +15,32 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ViewingHistoryRepository extends JpaRepository<ViewingHistory, Long> {
+public interface ViewingHistoryRepository extends JpaRepository<ViewingHistory, Long>, ViewingHistoryRepositoryCustom {
     
     Optional<ViewingHistory> findByUserIdAndContentId(Long userId, Long contentId);
     
     Page<ViewingHistory> findByUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT vh.contentId FROM ViewingHistory vh WHERE vh.userId = :userId")
+    List<Long> findContentIdsByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT vh FROM ViewingHistory vh WHERE vh.userId = :userId AND vh.completed = false AND vh.lastPositionSeconds > 0 ORDER BY vh.updatedAt DESC")
-    Page<ViewingHistory> findContinueWatching(@Param("userId") Long userId, Pageable pageable);
+    // Both Continue Watching queries are served by the partial idx_viewing_continue index (schema-postgresql.sql)
+    @Query("SELECT vh FROM ViewingHistory vh WHERE vh.userId = :userId AND vh.completed = false AND vh.lastPositionSeconds > 0 " +
+           "ORDER BY vh.updatedAt DESC, vh.id DESC")
+    List<ViewingHistory> findContinueWatching(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT vh FROM ViewingHistory vh WHERE vh.userId = :userId AND vh.completed = false AND vh.lastPositionSeconds > 0 " +
+           "AND (vh.updatedAt < :updatedAt OR (vh.updatedAt = :updatedAt AND vh.id < :id)) " +
+           "ORDER BY vh.updatedAt DESC, vh.id DESC")
+    List<ViewingHistory> findContinueWatchingAfter(@Param("userId") Long userId,
+                                                   @Param("updatedAt") LocalDateTime updatedAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
     
     @Query("SELECT COUNT(DISTINCT vh.userId) FROM ViewingHistory vh WHERE vh.contentId = :contentId")
     Long countUniqueViewersByContentId(@Param("contentId") Long contentId);
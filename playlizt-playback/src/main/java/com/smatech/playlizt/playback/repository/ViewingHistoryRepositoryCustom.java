@@ -0,0 +1,39 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 09:44
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.repository;
+
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ViewingHistoryRepositoryCustom {
+
+    /**
+     * Inserts or merges one pending state with a single INSERT ... ON CONFLICT statement. The watch time
+     * delta and completed flag are computed against the locked row inside the database, and the
+     * content_stats rollup is adjusted by the same statement.
+     */
+    PlaybackUpsert upsert(PendingPlayback pending);
+
+    /**
+     * Same statement as {@link #upsert(PendingPlayback)}, sent as one JDBC batch after locking the rows it
+     * will touch. Results are in the order of {@code pending}.
+     */
+    List<PlaybackUpsert> mergeAll(List<PendingPlayback> pending);
+
+    /**
+     * Rows of one user in id order, or of all users updated in {@code [from, to)} in update order, read
+     * through a server-side cursor {@code fetchSize} rows at a time. Either filter may be null but not both.
+     * Postgres only keeps the cursor open inside a transaction, and the stream must be closed.
+     */
+    Stream<ViewingHistory> streamHistory(Long userId, LocalDateTime from, LocalDateTime to, int fetchSize);
+}
@@ -0,0 +1,231 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 09:47
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.repository;
+
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackKey;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ViewingHistoryRepositoryCustomImpl implements ViewingHistoryRepositoryCustom {
+
+    // A new row behaves as if it had been at position 0; an existing row is merged under its row lock.
+    // The pre-statement snapshot in "previous" feeds the content_stats deltas; concurrent heartbeats for the
+    // same pair can make those drift slightly, which ContentStatsRepository.rebuild repairs.
+    private static final String UPSERT_CTE = """
+            WITH previous AS (
+                SELECT watch_time_seconds, last_position_seconds, max_position_seconds, completed
+                FROM viewing_history
+                WHERE user_id = :userId AND content_id = :contentId
+            ),
+            upserted AS (
+                INSERT INTO viewing_history AS vh
+                    (user_id, content_id, watch_time_seconds, last_position_seconds, max_position_seconds, completed,
+                     created_at, updated_at)
+                VALUES (:userId, :contentId, COALESCE(:firstPosition, 0) + :extraWatch, COALESCE(:lastPosition, 0),
+                        COALESCE(:maxPosition, 0), :completed, :updatedAt, :updatedAt)
+                ON CONFLICT (user_id, content_id) DO UPDATE SET
+                    watch_time_seconds = vh.watch_time_seconds
+                        + GREATEST(COALESCE(:firstPosition, vh.last_position_seconds) - vh.last_position_seconds, 0)
+                        + :extraWatch,
+                    last_position_seconds = COALESCE(:lastPosition, vh.last_position_seconds),
+                    max_position_seconds = GREATEST(vh.max_position_seconds, COALESCE(:maxPosition, 0)),
+                    completed = vh.completed OR EXCLUDED.completed,
+                    updated_at = EXCLUDED.updated_at
+                RETURNING id, user_id, content_id, watch_time_seconds, last_position_seconds, max_position_seconds,
+                          completed, created_at, updated_at, (xmax = 0) AS inserted
+            )
+            """;
+
+    // A start is a new viewer, or an existing viewer going back to the beginning
+    private static final String CONTENT_STATS_SQL = """
+            INSERT INTO content_stats AS cs
+                (content_id, unique_viewers, total_watch_time_seconds, completions, starts, updated_at)
+            SELECT u.content_id,
+                   CASE WHEN u.inserted THEN 1 ELSE 0 END,
+                   u.watch_time_seconds - CASE WHEN u.inserted THEN 0 ELSE COALESCE(p.watch_time_seconds, 0) END,
+                   CASE WHEN u.completed AND (u.inserted OR NOT COALESCE(p.completed, false)) THEN 1 ELSE 0 END,
+                   CASE WHEN u.inserted OR (:firstPosition = 0 AND COALESCE(p.last_position_seconds, 0) > 0)
+                        THEN 1 ELSE 0 END,
+                   u.updated_at
+            FROM upserted u LEFT JOIN previous p ON true
+            ON CONFLICT (content_id) DO UPDATE SET
+                unique_viewers = cs.unique_viewers + EXCLUDED.unique_viewers,
+                total_watch_time_seconds = cs.total_watch_time_seconds + EXCLUDED.total_watch_time_seconds,
+                completions = cs.completions + EXCLUDED.completions,
+                starts = cs.starts + EXCLUDED.starts,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    static final String UPSERT_RETURNING_SQL = UPSERT_CTE + ", stats AS (" + CONTENT_STATS_SQL + """
+            )
+            SELECT u.*, p.watch_time_seconds AS previous_watch_time_seconds,
+                   p.last_position_seconds AS previous_position_seconds,
+                   p.max_position_seconds AS previous_max_position_seconds, p.completed AS previously_completed
+            FROM upserted u LEFT JOIN previous p ON true
+            """;
+
+    // Batched statements may not return rows, so the rollup insert is the primary statement here
+    private static final String UPSERT_BATCH_SQL = UPSERT_CTE + CONTENT_STATS_SQL;
+
+    // Locks the batch's existing rows so the deltas worked out from them match what the batch writes
+    private static final String LOCK_BATCH_SQL = """
+            SELECT vh.id, vh.user_id, vh.content_id, vh.watch_time_seconds, vh.last_position_seconds,
+                   vh.max_position_seconds, vh.completed, vh.created_at, vh.updated_at
+            FROM viewing_history vh
+            JOIN unnest(:userIds, :contentIds) AS batch(user_id, content_id)
+              ON vh.user_id = batch.user_id AND vh.content_id = batch.content_id
+            ORDER BY vh.content_id, vh.user_id
+            FOR UPDATE OF vh
+            """;
+
+    // Concurrent batches take row locks in one global order so they cannot deadlock. Content comes first
+    // because each upsert also locks the content's content_stats row, and that must follow the same order.
+    private static final Comparator<PendingPlayback> LOCK_ORDER =
+            Comparator.comparing(PendingPlayback::getContentId).thenComparing(PendingPlayback::getUserId);
+
+    private static final String STREAM_HISTORY_SQL = """
+            SELECT id, user_id, content_id, watch_time_seconds, last_position_seconds, max_position_seconds,
+                   completed, created_at, updated_at
+            FROM viewing_history
+            WHERE true
+            """;
+
+    private static final RowMapper<ViewingHistory> ROW_MAPPER = (rs, rowNum) -> ViewingHistory.builder()
+            .id(rs.getLong("id"))
+            .userId(rs.getLong("user_id"))
+            .contentId(rs.getLong("content_id"))
+            .watchTimeSeconds(rs.getInt("watch_time_seconds"))
+            .lastPositionSeconds(rs.getInt("last_position_seconds"))
+            .maxPositionSeconds(rs.getInt("max_position_seconds"))
+            .completed(rs.getBoolean("completed"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+
+    private static final RowMapper<PlaybackUpsert> UPSERT_ROW_MAPPER = (rs, rowNum) -> {
+        int previousPosition = rs.getInt("previous_position_seconds");
+        boolean hadPrevious = !rs.wasNull();
+        int previousMaxPosition = rs.getInt("previous_max_position_seconds");
+        return PlaybackUpsert.builder()
+                .history(ROW_MAPPER.mapRow(rs, rowNum))
+                .inserted(rs.getBoolean("inserted"))
+                .previousWatchTimeSeconds(rs.getInt("previous_watch_time_seconds"))
+                .previousPositionSeconds(hadPrevious ? previousPosition : null)
+                .previousMaxPositionSeconds(hadPrevious ? previousMaxPosition : null)
+                .previouslyCompleted(rs.getBoolean("previously_completed"))
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public PlaybackUpsert upsert(PendingPlayback pending) {
+        return namedParameterJdbcTemplate.queryForObject(UPSERT_RETURNING_SQL, toParameters(pending), UPSERT_ROW_MAPPER);
+    }
+
+    @Override
+    @Transactional
+    public List<PlaybackUpsert> mergeAll(List<PendingPlayback> pending) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        Map<PlaybackKey, ViewingHistory> previous = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_BATCH_SQL, new MapSqlParameterSource()
+                        .addValue("userIds", bigintArray(pending.stream().map(PendingPlayback::getUserId)))
+                        .addValue("contentIds", bigintArray(pending.stream().map(PendingPlayback::getContentId))),
+                (RowCallbackHandler) rs -> {
+                    ViewingHistory row = ROW_MAPPER.mapRow(rs, 0);
+                    previous.put(PlaybackKey.of(row.getUserId(), row.getContentId()), row);
+                });
+
+        SqlParameterSource[] batch = pending.stream()
+                .sorted(LOCK_ORDER)
+                .map(ViewingHistoryRepositoryCustomImpl::toParameters)
+                .toArray(SqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate(UPSERT_BATCH_SQL, batch);
+
+        // Results stay in the caller's order whatever order the rows were written in
+        return pending.stream()
+                .map(p -> PlaybackUpsert.of(p, previous.get(PlaybackKey.of(p.getUserId(), p.getContentId()))))
+                .toList();
+    }
+
+    @Override
+    public Stream<ViewingHistory> streamHistory(Long userId, LocalDateTime from, LocalDateTime to, int fetchSize) {
+        if (userId == null && (from == null || to == null)) {
+            throw new IllegalArgumentException("Streaming all users needs both 'from' and 'to'");
+        }
+        StringBuilder sql = new StringBuilder(STREAM_HISTORY_SQL);
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        if (userId != null) {
+            sql.append(" AND user_id = :userId");
+            parameters.addValue("userId", userId);
+        }
+        if (from != null) {
+            sql.append(" AND updated_at >= :from");
+            parameters.addValue("from", Timestamp.valueOf(from), Types.TIMESTAMP);
+        }
+        if (to != null) {
+            sql.append(" AND updated_at < :to");
+            parameters.addValue("to", Timestamp.valueOf(to), Types.TIMESTAMP);
+        }
+        // uk_viewing_user_content serves the per-user export, idx_viewing_updated the range export
+        sql.append(userId != null ? " ORDER BY id" : " ORDER BY updated_at, id");
+
+        // The shared template has no fetch size, so the driver would otherwise buffer the whole result
+        JdbcTemplate cursorTemplate = new JdbcTemplate(namedParameterJdbcTemplate.getJdbcTemplate().getDataSource());
+        cursorTemplate.setFetchSize(fetchSize);
+        return new NamedParameterJdbcTemplate(cursorTemplate).queryForStream(sql.toString(), parameters, ROW_MAPPER);
+    }
+
+    private static SqlTypeValue bigintArray(Stream<Long> values) {
+        Long[] array = values.toArray(Long[]::new);
+        return new AbstractSqlTypeValue() {
+            @Override
+            protected Object createTypeValue(Connection connection, int sqlType, String typeName) throws SQLException {
+                return connection.createArrayOf("bigint", array);
+            }
+        };
+    }
+
+    private static SqlParameterSource toParameters(PendingPlayback pending) {
+        return new MapSqlParameterSource()
+                .addValue("userId", pending.getUserId())
+                .addValue("contentId", pending.getContentId())
+                .addValue("firstPosition", pending.getFirstPositionSeconds(), Types.INTEGER)
+                .addValue("lastPosition", pending.getLastPositionSeconds(), Types.INTEGER)
+                .addValue("maxPosition", pending.getMaxPositionSeconds(), Types.INTEGER)
+                .addValue("extraWatch", pending.getExtraWatchSeconds())
+                .addValue("completed", pending.isCompleted())
+                .addValue("updatedAt", Timestamp.valueOf(pending.getUpdatedAt()), Types.TIMESTAMP);
+    }
+}
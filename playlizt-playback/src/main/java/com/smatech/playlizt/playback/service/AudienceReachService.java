@@ -0,0 +1,144 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 12:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.HyperLogLog;
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.ReachResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ContentDayId;
+import zw.co.t3ratech.playlizt.playback.entity.ContentReachSketch;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentReachSketchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate unique viewers per content and day, kept as HyperLogLog sketches so that reach over any
+ * date range is a union of stored sketches rather than a scan of viewing_history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AudienceReachService {
+
+    private final ContentReachSketchRepository contentReachSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PlaybackProperties playbackProperties;
+    // Sketches touched by this instance; stored sketches are unioned with these on flush
+    private final ConcurrentHashMap<ContentDayId, HyperLogLog> sketches = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        ContentDayId id = new ContentDayId(tracked.getContentId(), tracked.getTrackedAt().toLocalDate());
+        // Offered inside compute so a flush cannot evict the sketch between lookup and offer
+        sketches.compute(id, (key, sketch) -> {
+            HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+            target.offer(tracked.getUserId());
+            return target;
+        });
+    }
+
+    public ReachResponse getReach(Long contentId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= playbackProperties.getReach().getMaxRangeDays()) {
+            throw new IllegalArgumentException("Reach range may span at most "
+                    + playbackProperties.getReach().getMaxRangeDays() + " days");
+        }
+
+        Map<LocalDate, HyperLogLog> daily = new TreeMap<>();
+        for (ContentReachSketch stored : contentReachSketchRepository.findByIdContentIdAndIdDayBetween(contentId, from, to)) {
+            daily.put(stored.getId().getDay(), HyperLogLog.fromBytes(stored.getRegisters()));
+        }
+        sketches.forEach((id, sketch) -> {
+            LocalDate day = id.getDay();
+            if (id.getContentId().equals(contentId) && !day.isBefore(from) && !day.isAfter(to)) {
+                daily.computeIfAbsent(day, d -> new HyperLogLog()).merge(sketch);
+            }
+        });
+
+        HyperLogLog union = new HyperLogLog();
+        List<ReachResponse.DailyReach> days = new ArrayList<>(daily.size());
+        daily.forEach((day, sketch) -> {
+            union.merge(sketch);
+            days.add(ReachResponse.DailyReach.builder()
+                    .day(day)
+                    .estimatedViewers(sketch.estimate())
+                    .build());
+        });
+
+        return ReachResponse.builder()
+                .contentId(contentId)
+                .from(from)
+                .to(to)
+                .estimatedReach(union.estimate())
+                .relativeStandardError(HyperLogLog.RELATIVE_STANDARD_ERROR)
+                .daily(days)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${playback.reach.flush-interval:PT1M}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        int written = 0;
+        for (Map.Entry<ContentDayId, HyperLogLog> entry : sketches.entrySet()) {
+            HyperLogLog sketch = entry.getValue();
+            byte[] registers = sketch.takeIfDirty();
+            if (registers != null) {
+                try {
+                    persist(entry.getKey(), registers);
+                    written++;
+                } catch (RuntimeException e) {
+                    sketch.markDirty();
+                    log.warn("Failed to persist reach sketch for {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+            // Past days no longer receive heartbeats once their last changes are stored
+            if (entry.getKey().getDay().isBefore(today)) {
+                sketches.computeIfPresent(entry.getKey(), (id, current) -> current.isDirty() ? current : null);
+            }
+        }
+        if (written > 0) {
+            log.debug("Persisted {} reach sketches", written);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(ContentDayId id, byte[] registers) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ContentReachSketch stored = contentReachSketchRepository.findForUpdate(id)
+                    .orElseGet(() -> ContentReachSketch.builder()
+                            .id(id)
+                            .registers(new byte[HyperLogLog.REGISTER_COUNT])
+                            .build());
+            HyperLogLog merged = HyperLogLog.fromBytes(stored.getRegisters()).merge(HyperLogLog.fromBytes(registers));
+            stored.setRegisters(merged.toBytes());
+            stored.setUpdatedAt(LocalDateTime.now());
+            contentReachSketchRepository.save(stored);
+        });
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:04
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.CohortRetentionResponse;
+import zw.co.t3ratech.playlizt.playback.entity.DailyActiveViewers;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.DailyActiveViewersRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Day-based cohort retention from one Roaring bitmap of active user ids per day. A day's cohort is the
+ * viewers active that day who were not active in the days before it, and its Dn retention is the size of
+ * its intersection with day n's bitmap, so a whole matrix costs a few bitmap operations per cell instead
+ * of a self-join over viewing_history.
+ * <p>
+ * Each instance collects the users it sees per day and ORs them into the stored bitmap on flush.
+ */
+@Service
+@Slf4j
+public class CohortRetentionService {
+
+    private final DailyActiveViewersRepository dailyActiveViewersRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PlaybackProperties playbackProperties;
+    // Matrix cells are independent intersections; a dedicated pool keeps them off the common pool
+    private final ForkJoinPool cohortPool;
+    private final ConcurrentHashMap<LocalDate, DayActivity> activity = new ConcurrentHashMap<>();
+
+    public CohortRetentionService(DailyActiveViewersRepository dailyActiveViewersRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  PlaybackProperties playbackProperties) {
+        this.dailyActiveViewersRepository = dailyActiveViewersRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.playbackProperties = playbackProperties;
+        int parallelism = playbackProperties.getCohort().getParallelism();
+        this.cohortPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        LocalDate day = tracked.getTrackedAt().toLocalDate();
+        // An entry evicted by a concurrent flush between lookup and add is retried with a fresh one
+        while (!activity.computeIfAbsent(day, d -> new DayActivity()).add(tracked.getUserId())) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Retention of each daily cohort from {@code from} to {@code to} at the given day offsets. Offsets that
+     * land after today are returned without counts.
+     */
+    public CohortRetentionResponse getRetention(LocalDate from, LocalDate to, List<Integer> dayOffsets) {
+        PlaybackProperties.Cohort config = playbackProperties.getCohort();
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= config.getMaxRangeDays()) {
+            throw new IllegalArgumentException("Cohort range may span at most " + config.getMaxRangeDays() + " days");
+        }
+        if (dayOffsets.isEmpty() || dayOffsets.stream().anyMatch(n -> n < 1 || n > config.getMaxOffsetDays())) {
+            throw new IllegalArgumentException("Day offsets must be between 1 and " + config.getMaxOffsetDays());
+        }
+
+        LocalDate today = LocalDate.now();
+        int maxOffset = dayOffsets.stream().mapToInt(Integer::intValue).max().orElseThrow();
+        LocalDate loadFrom = from.minusDays(config.getLookbackDays());
+        LocalDate loadTo = to.plusDays(maxOffset).isAfter(today) ? today : to.plusDays(maxOffset);
+        Map<LocalDate, Roaring64NavigableMap> days = loadDays(loadFrom, loadTo);
+
+        // Cohorts depend on every earlier day, so they are peeled off in order before the parallel part
+        Roaring64NavigableMap seen = newBitmap();
+        for (LocalDate day = loadFrom; day.isBefore(from); day = day.plusDays(1)) {
+            Roaring64NavigableMap active = days.get(day);
+            if (active != null) {
+                seen.or(active);
+            }
+        }
+        Map<LocalDate, Roaring64NavigableMap> cohorts = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Roaring64NavigableMap cohort = newBitmap();
+            Roaring64NavigableMap active = days.get(day);
+            if (active != null) {
+                cohort.or(active);
+                cohort.andNot(seen);
+                seen.or(active);
+            }
+            cohorts.put(day, cohort);
+        }
+
+        List<CohortRetentionResponse.Cohort> matrix = cohortPool.submit(() -> cohorts.entrySet().parallelStream()
+                .map(entry -> toCohort(entry.getKey(), entry.getValue(), dayOffsets, days, today))
+                .toList()).join();
+
+        return CohortRetentionResponse.builder()
+                .from(from)
+                .to(to)
+                .dayOffsets(dayOffsets)
+                .lookbackDays(config.getLookbackDays())
+                .cohorts(matrix)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${playback.cohort.flush-interval:PT1M}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        int written = 0;
+        for (Map.Entry<LocalDate, DayActivity> entry : activity.entrySet()) {
+            DayActivity day = entry.getValue();
+            Roaring64NavigableMap taken = day.takeIfDirty();
+            if (taken != null) {
+                try {
+                    persist(entry.getKey(), taken);
+                    written++;
+                } catch (RuntimeException e) {
+                    day.addAll(taken);
+                    log.warn("Failed to persist active viewers for {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+            if (entry.getKey().isBefore(today) && day.evictIfClean()) {
+                activity.remove(entry.getKey(), day);
+            }
+        }
+        if (written > 0) {
+            log.debug("Persisted active viewer bitmaps for {} days", written);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        cohortPool.shutdown();
+    }
+
+    private CohortRetentionResponse.Cohort toCohort(LocalDate day, Roaring64NavigableMap cohort, List<Integer> dayOffsets,
+                                                    Map<LocalDate, Roaring64NavigableMap> days, LocalDate today) {
+        long size = cohort.getLongCardinality();
+        List<CohortRetentionResponse.Cell> cells = new ArrayList<>(dayOffsets.size());
+        for (Integer offset : dayOffsets) {
+            LocalDate target = day.plusDays(offset);
+            Long retained = null;
+            if (!target.isAfter(today)) {
+                Roaring64NavigableMap active = days.get(target);
+                retained = active == null || size == 0 ? 0L : intersectionSize(cohort, active);
+            }
+            cells.add(CohortRetentionResponse.Cell.builder()
+                    .dayOffset(offset)
+                    .retainedViewers(retained)
+                    .percentRetained(retained == null ? null : size == 0 ? 0.0 : 100.0 * retained / size)
+                    .build());
+        }
+        return CohortRetentionResponse.Cohort.builder()
+                .day(day)
+                .newViewers(size)
+                .retention(cells)
+                .build();
+    }
+
+    private static long intersectionSize(Roaring64NavigableMap cohort, Roaring64NavigableMap active) {
+        Roaring64NavigableMap intersection = newBitmap();
+        intersection.or(cohort);
+        intersection.and(active);
+        return intersection.getLongCardinality();
+    }
+
+    private Map<LocalDate, Roaring64NavigableMap> loadDays(LocalDate from, LocalDate to) {
+        Map<LocalDate, Roaring64NavigableMap> days = new HashMap<>();
+        for (DailyActiveViewers stored : dailyActiveViewersRepository.findByDayBetween(from, to)) {
+            days.put(stored.getDay(), fromBytes(stored.getBitmap()));
+        }
+        activity.forEach((day, pending) -> {
+            if (!day.isBefore(from) && !day.isAfter(to)) {
+                pending.copyInto(days.computeIfAbsent(day, d -> newBitmap()));
+            }
+        });
+        return days;
+    }
+
+    private void persist(LocalDate day, Roaring64NavigableMap delta) {
+        transactionTemplate.executeWithoutResult(status -> {
+            DailyActiveViewers stored = dailyActiveViewersRepository.findForUpdate(day)
+                    .orElseGet(() -> DailyActiveViewers.builder()
+                            .day(day)
+                            .build());
+            Roaring64NavigableMap merged = stored.getBitmap() == null ? newBitmap() : fromBytes(stored.getBitmap());
+            merged.or(delta);
+            merged.runOptimize();
+            stored.setBitmap(toBytes(merged));
+            stored.setViewers(merged.getLongCardinality());
+            stored.setUpdatedAt(LocalDateTime.now());
+            dailyActiveViewersRepository.save(stored);
+        });
+    }
+
+    // Without cached cardinalities a bitmap is not mutated by reads, so the matrix tasks can share them
+    private static Roaring64NavigableMap newBitmap() {
+        return new Roaring64NavigableMap(false, false);
+    }
+
+    private static Roaring64NavigableMap fromBytes(byte[] bytes) {
+        Roaring64NavigableMap bitmap = newBitmap();
+        try {
+            bitmap.deserializePortable(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bitmap;
+    }
+
+    private static byte[] toBytes(Roaring64NavigableMap bitmap) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            bitmap.serializePortable(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Users seen by this instance on one day since the last flush. Guarded by its own monitor; once evicted
+     * it takes no more users, so none can be added to an entry that is no longer in the map.
+     */
+    private static final class DayActivity {
+        private Roaring64NavigableMap users = newBitmap();
+        private boolean dirty;
+        private boolean evicted;
+
+        /**
+         * Returns false without adding when the entry has been evicted.
+         */
+        synchronized boolean add(long userId) {
+            if (evicted) {
+                return false;
+            }
+            if (!users.contains(userId)) {
+                users.addLong(userId);
+                dirty = true;
+            }
+            return true;
+        }
+
+        synchronized void addAll(Roaring64NavigableMap other) {
+            users.or(other);
+            dirty = true;
+        }
+
+        synchronized void copyInto(Roaring64NavigableMap target) {
+            target.or(users);
+        }
+
+        synchronized Roaring64NavigableMap takeIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            Roaring64NavigableMap taken = users;
+            users = newBitmap();
+            dirty = false;
+            return taken;
+        }
+
+        /**
+         * Marks the entry evicted if everything in it has been persisted.
+         */
+        synchronized boolean evictIfClean() {
+            if (!dirty) {
+                evicted = true;
+            }
+            return evicted;
+        }
+    }
+}
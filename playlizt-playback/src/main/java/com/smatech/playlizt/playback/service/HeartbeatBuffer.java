@@ -0,0 +1,135 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 09:31
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackKey;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces heartbeats per (userId, contentId) until {@link HeartbeatFlusher} writes them out.
+ * Entries are spread over independent stripes so a drain only walks one stripe at a time.
+ */
+@Component
+public class HeartbeatBuffer {
+
+    private final List<ConcurrentHashMap<PlaybackKey, PendingPlayback>> stripes;
+    // Drained and not yet completed, so status reads do not fall back to a stale row mid-flush
+    private final ConcurrentHashMap<PlaybackKey, PendingPlayback> inFlight = new ConcurrentHashMap<>();
+
+    public HeartbeatBuffer(PlaybackProperties playbackProperties) {
+        int stripeCount = Math.max(1, playbackProperties.getWriteBehind().getStripes());
+        this.stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public PendingPlayback add(PendingPlayback heartbeat) {
+        PlaybackKey key = PlaybackKey.of(heartbeat.getUserId(), heartbeat.getContentId());
+        return stripeFor(key).merge(key, heartbeat, PendingPlayback::then);
+    }
+
+    public Optional<PendingPlayback> find(Long userId, Long contentId) {
+        return find(userId, contentId, null);
+    }
+
+    /**
+     * Pending state to apply on top of a stored row last written at {@code storedUpdatedAt}, or null when
+     * there is no row. An in-flight entry is left out once the row carries its timestamp: the flush has
+     * committed by then, and {@link #complete(Collection)} only runs after that.
+     */
+    public Optional<PendingPlayback> find(Long userId, Long contentId, LocalDateTime storedUpdatedAt) {
+        PlaybackKey key = PlaybackKey.of(userId, contentId);
+        PendingPlayback flushing = inFlight.get(key);
+        if (flushing != null && isWritten(flushing, storedUpdatedAt)) {
+            flushing = null;
+        }
+        PendingPlayback buffered = stripeFor(key).get(key);
+        if (flushing == null) {
+            return Optional.ofNullable(buffered);
+        }
+        return Optional.of(buffered == null ? flushing : flushing.then(buffered));
+    }
+
+    public int size() {
+        long total = 0;
+        for (ConcurrentHashMap<PlaybackKey, PendingPlayback> stripe : stripes) {
+            total += stripe.mappingCount();
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return stripes.stream().allMatch(ConcurrentHashMap::isEmpty);
+    }
+
+    /**
+     * Removes up to {@code max} pending entries and marks them in flight until
+     * {@link #complete(Collection)} or {@link #requeue(Collection)} is called.
+     */
+    public List<PendingPlayback> drain(int max) {
+        List<PendingPlayback> batch = new ArrayList<>(Math.min(max, 1024));
+        for (ConcurrentHashMap<PlaybackKey, PendingPlayback> stripe : stripes) {
+            Iterator<PlaybackKey> keys = stripe.keySet().iterator();
+            while (keys.hasNext() && batch.size() < max) {
+                PlaybackKey key = keys.next();
+                PendingPlayback pending = stripe.remove(key);
+                if (pending != null) {
+                    inFlight.put(key, pending);
+                    batch.add(pending);
+                }
+            }
+            if (batch.size() >= max) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    public void complete(Collection<PendingPlayback> batch) {
+        batch.forEach(pending -> inFlight.remove(keyOf(pending)));
+    }
+
+    /**
+     * Puts a failed batch back in front of anything buffered for the same pair since it was drained.
+     */
+    public void requeue(Collection<PendingPlayback> batch) {
+        for (PendingPlayback pending : batch) {
+            PlaybackKey key = keyOf(pending);
+            inFlight.remove(key);
+            stripeFor(key).merge(key, pending, (newer, failed) -> failed.then(newer));
+        }
+    }
+
+    private static boolean isWritten(PendingPlayback pending, LocalDateTime storedUpdatedAt) {
+        if (storedUpdatedAt == null || pending.getUpdatedAt() == null) {
+            return false;
+        }
+        // The column keeps microseconds
+        return !storedUpdatedAt.isBefore(pending.getUpdatedAt().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    private ConcurrentHashMap<PlaybackKey, PendingPlayback> stripeFor(PlaybackKey key) {
+        return stripes.get(Math.floorMod(key.hashCode(), stripes.size()));
+    }
+
+    private static PlaybackKey keyOf(PendingPlayback pending) {
+        return PlaybackKey.of(pending.getUserId(), pending.getContentId());
+    }
+}
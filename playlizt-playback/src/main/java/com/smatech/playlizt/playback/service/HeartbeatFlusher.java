@@ -0,0 +1,96 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 10:02
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HeartbeatFlusher {
+
+    private final HeartbeatBuffer heartbeatBuffer;
+    private final ViewingHistoryRepository viewingHistoryRepository;
+    private final PlaybackProperties playbackProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${playback.write-behind.flush-interval:PT5S}")
+    public void scheduledFlush() {
+        if (!heartbeatBuffer.isEmpty()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything currently buffered. Heartbeat threads that call this while a flush is running
+     * wait for it, which is the back-pressure applied once the buffer reaches its configured size.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            int batchSize = Math.max(1, playbackProperties.getWriteBehind().getBatchSize());
+            // Bounded by what was pending on entry so a busy buffer cannot keep one flush running forever
+            int target = heartbeatBuffer.size();
+            int written = 0;
+            List<PendingPlayback> batch;
+            while (written < target && !(batch = heartbeatBuffer.drain(batchSize)).isEmpty()) {
+                List<PlaybackUpsert> results;
+                try {
+                    results = viewingHistoryRepository.mergeAll(batch);
+                    heartbeatBuffer.complete(batch);
+                } catch (RuntimeException e) {
+                    heartbeatBuffer.requeue(batch);
+                    log.error("Failed to flush {} buffered heartbeats, will retry on next flush", batch.size(), e);
+                    return;
+                }
+                written += batch.size();
+                publish(batch, results);
+            }
+            if (written > 0) {
+                log.debug("Flushed {} buffered heartbeats to viewing_history", written);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * The batch is already committed, so a failing listener is logged and skipped: requeueing here would
+     * write the same heartbeats again and replay them to every listener that did succeed.
+     */
+    private void publish(List<PendingPlayback> batch, List<PlaybackUpsert> results) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingPlayback pending = batch.get(i);
+            try {
+                eventPublisher.publishEvent(TrackedPlayback.of(pending, results.get(i)));
+            } catch (RuntimeException e) {
+                log.error("Failed to publish flushed heartbeat for user {} content {}",
+                        pending.getUserId(), pending.getContentId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
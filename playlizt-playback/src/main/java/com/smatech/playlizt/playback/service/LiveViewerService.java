@@ -0,0 +1,61 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 17:31
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.LiveViewerWindow;
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.LiveViewersResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * "Watching now" counts from heartbeats received by this instance, without touching the database.
+ * Behind a load balancer each instance sees its own share of heartbeats, so routing a user's heartbeats
+ * consistently keeps the per-instance counts additive.
+ */
+@Service
+public class LiveViewerService {
+
+    private final LiveViewerWindow window;
+
+    public LiveViewerService(PlaybackProperties playbackProperties) {
+        PlaybackProperties.Live live = playbackProperties.getLive();
+        this.window = new LiveViewerWindow(live.getWindow(), live.getBucketWidth());
+    }
+
+    public void record(Long userId, Long contentId) {
+        window.record(contentId, userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Counts for the given content ids, or the {@code limit} most watched when none are given.
+     */
+    public LiveViewersResponse getLiveViewers(Collection<Long> contentIds, int limit) {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> contentViewers = new LinkedHashMap<>();
+        if (contentIds != null && !contentIds.isEmpty()) {
+            contentIds.forEach(id -> contentViewers.put(id, window.countViewers(id, now)));
+        } else {
+            window.countByContent(now).entrySet().stream()
+                    .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                    .limit(limit)
+                    .forEach(entry -> contentViewers.put(entry.getKey(), entry.getValue()));
+        }
+
+        return LiveViewersResponse.builder()
+                .watchingNow(window.countAll(now))
+                .windowSeconds(window.getWindow().toSeconds())
+                .contentViewers(contentViewers)
+                .asOf(LocalDateTime.now())
+                .build();
+    }
+}
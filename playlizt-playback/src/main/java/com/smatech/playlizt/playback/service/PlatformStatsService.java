@@ -0,0 +1,80 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 13:48
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Platform-wide totals kept as striped counters. The database baseline comes from the content_stats
+ * rollup, and heartbeats tracked by this instance are added on top until the next checkpoint re-reads the
+ * rollup, which also picks up heartbeats written by other instances.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformStatsService {
+
+    private final ContentStatsRepository contentStatsRepository;
+
+    private final LongAdder sessionsSinceCheckpoint = new LongAdder();
+    private final LongAdder watchTimeSinceCheckpoint = new LongAdder();
+    private volatile long checkpointSessions;
+    private volatile long checkpointWatchTimeSeconds;
+    private volatile LocalDateTime checkpointedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        checkpoint();
+    }
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        if (tracked.isNewSession()) {
+            sessionsSinceCheckpoint.increment();
+        }
+        if (tracked.getWatchTimeDeltaSeconds() != 0) {
+            watchTimeSinceCheckpoint.add(tracked.getWatchTimeDeltaSeconds());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${playback.platform.checkpoint-interval:PT5M}",
+            initialDelayString = "${playback.platform.checkpoint-interval:PT5M}")
+    public void checkpoint() {
+        long sessions = contentStatsRepository.sumUniqueViewers();
+        long watchTimeSeconds = contentStatsRepository.sumTotalWatchTime();
+        // Heartbeats are tracked only after they commit, so everything counted up to here is already in the
+        // rollup just read and is dropped; resetting before the read would count those tracked during it twice
+        sessionsSinceCheckpoint.sumThenReset();
+        watchTimeSinceCheckpoint.sumThenReset();
+        checkpointSessions = sessions;
+        checkpointWatchTimeSeconds = watchTimeSeconds;
+        checkpointedAt = LocalDateTime.now();
+        log.debug("Platform counters checkpointed: sessions={}, watchTime={}s",
+                checkpointSessions, checkpointWatchTimeSeconds);
+    }
+
+    public Map<String, Object> getPlatformAnalytics() {
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("totalSessions", checkpointSessions + sessionsSinceCheckpoint.sum());
+        analytics.put("totalWatchTimeSeconds", checkpointWatchTimeSeconds + watchTimeSinceCheckpoint.sum());
+        analytics.put("checkpointedAt", checkpointedAt);
+        return analytics;
+    }
+}
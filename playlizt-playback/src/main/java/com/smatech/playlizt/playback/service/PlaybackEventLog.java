@@ -0,0 +1,92 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 15:20
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackEvent;
+import zw.co.t3ratech.playlizt.playback.repository.PlaybackEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues raw heartbeats from the track path and appends them to playback_events in batches. The log is
+ * best effort: viewing_history stays the source of truth, so a full queue or a failed insert drops events
+ * rather than slowing down tracking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlaybackEventLog {
+
+    private final PlaybackEventRepository playbackEventRepository;
+    private final PlaybackProperties playbackProperties;
+    private final ConcurrentLinkedQueue<PlaybackEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void append(PlaybackEvent event) {
+        PlaybackProperties.Events events = playbackProperties.getEvents();
+        if (!events.isEnabled()) {
+            return;
+        }
+        if (queued.incrementAndGet() > events.getMaxQueueSize()) {
+            queued.decrementAndGet();
+            log.warn("Playback event queue full, dropping event for user {} on content {}",
+                    event.getUserId(), event.getContentId());
+            return;
+        }
+        queue.add(event);
+    }
+
+    @Scheduled(fixedDelayString = "${playback.events.flush-interval:PT2S}")
+    public void flush() {
+        if (queue.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            int batchSize = Math.max(1, playbackProperties.getEvents().getBatchSize());
+            List<PlaybackEvent> batch = new ArrayList<>(batchSize);
+            PlaybackEvent event;
+            while ((event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(event);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<PlaybackEvent> batch) {
+        try {
+            playbackEventRepository.insertAll(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to append {} playback events, dropping them", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
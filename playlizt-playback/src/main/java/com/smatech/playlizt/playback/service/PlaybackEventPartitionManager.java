@@ -0,0 +1,80 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 15:31
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.repository.PlaybackEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps daily playback_events partitions created ahead of time and drops the ones past retention.
+ * Every step is idempotent, so several instances may run it concurrently.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlaybackEventPartitionManager {
+
+    private final PlaybackEventRepository playbackEventRepository;
+    private final PlaybackProperties playbackProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${playback.events.maintenance-cron:0 5 0 * * *}")
+    public void maintain() {
+        PlaybackProperties.Events events = playbackProperties.getEvents();
+        if (!events.isEnabled()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            // Yesterday too, so late events around midnight still find a partition after a restart
+            for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(events.getPremakeDays())); day = day.plusDays(1)) {
+                playbackEventRepository.createPartition(day);
+            }
+
+            LocalDate oldestKept = today.minusDays(events.getRetentionDays());
+            int dropped = 0;
+            for (String name : playbackEventRepository.findPartitionNames()) {
+                LocalDate day = parseDay(name);
+                if (day != null && day.isBefore(oldestKept)) {
+                    playbackEventRepository.dropPartition(day);
+                    dropped++;
+                }
+            }
+            if (dropped > 0) {
+                log.info("Dropped {} playback_events partitions older than {}", dropped, oldestKept);
+            }
+        } catch (RuntimeException e) {
+            log.error("playback_events partition maintenance failed", e);
+        }
+    }
+
+    static LocalDate parseDay(String partitionName) {
+        if (!partitionName.startsWith(PlaybackEventRepository.PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PlaybackEventRepository.PARTITION_PREFIX.length()),
+                    PlaybackEventRepository.PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -7,18 +7,43 @@
  */
 package zw.co.t3ratech.playlizt.playback.service;
 
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.BatchTrackResponse;
+import zw.co.t3ratech.playlizt.playback.dto.CursorPage;
 import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
 import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ContentStats;
 import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.ContinueWatchingCursor;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackEvent;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackKey;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentStatsRepository;
 import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,78 +51,254 @@ import java.util.Map;
 public class PlaybackService {
 
     private final ViewingHistoryRepository viewingHistoryRepository;
+    private final ContentStatsRepository contentStatsRepository;
+    private final PlaybackProperties playbackProperties;
+    private final HeartbeatBuffer heartbeatBuffer;
+    private final HeartbeatFlusher heartbeatFlusher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final PlaybackEventLog playbackEventLog;
+    private final LiveViewerService liveViewerService;
+    private final WatchedCoverageService watchedCoverageService;
 
-    @Transactional
+    // Not transactional: the direct path is one upsert statement and the buffered path does not touch the database
     public PlaybackResponse startOrUpdatePlayback(PlaybackRequest request) {
-        log.info("Processing playback for user {} on content {}", request.getUserId(), request.getContentId());
-
-        ViewingHistory history = viewingHistoryRepository
-                .findByUserIdAndContentId(request.getUserId(), request.getContentId())
-                .orElseGet(() -> ViewingHistory.builder()
-                        .userId(request.getUserId())
-                        .contentId(request.getContentId())
-                        .watchTimeSeconds(0)
-                        .lastPositionSeconds(0)
-                        .completed(false)
+        log.debug("Processing playback for user {} on content {}", request.getUserId(), request.getContentId());
+
+        LocalDateTime now = LocalDateTime.now();
+        recordHeartbeat(request, now);
+        if (playbackProperties.getWriteBehind().isEnabled()) {
+            return bufferPlayback(request, now);
+        }
+
+        PendingPlayback pending = PendingPlayback.of(request, now);
+        PlaybackUpsert upsert = viewingHistoryRepository.upsert(pending);
+        ViewingHistory history = upsert.getHistory();
+        log.debug("Playback updated: watchTime={}s, position={}s",
+                history.getWatchTimeSeconds(), history.getLastPositionSeconds());
+        eventPublisher.publishEvent(TrackedPlayback.of(pending, upsert));
+
+        return toResponse(history);
+    }
+
+    /**
+     * Feeds the in-memory consumers that want every heartbeat as received, before any coalescing.
+     */
+    void recordHeartbeat(PlaybackRequest request, LocalDateTime now) {
+        playbackEventLog.append(PlaybackEvent.of(request, now));
+        liveViewerService.record(request.getUserId(), request.getContentId());
+        watchedCoverageService.record(request, now);
+    }
+
+    /**
+     * Write-behind path: the heartbeat is merged into the buffer and written by {@link HeartbeatFlusher}.
+     * The response only carries what is known without reading the stored row, so watch time and id are
+     * left empty; {@link #getPlaybackStatus(Long, Long)} returns the fully merged view.
+     */
+    PlaybackResponse bufferPlayback(PlaybackRequest request, LocalDateTime now) {
+        PendingPlayback pending = heartbeatBuffer.add(PendingPlayback.of(request, now));
+        flushIfBufferFull();
+        return toBufferedResponse(pending);
+    }
+
+    /**
+     * Applies a burst of heartbeats, e.g. replayed after a client was offline. Heartbeats are collapsed per
+     * (userId, contentId) in submission order, giving the same state as tracking them one by one, and the
+     * collapsed pairs are written together. Invalid items are rejected individually without failing the rest.
+     */
+    public BatchTrackResponse trackBatch(List<PlaybackRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<PlaybackKey, PendingPlayback> collapsed = new LinkedHashMap<>();
+        List<PlaybackKey> itemKeys = new ArrayList<>(requests.size());
+        List<BatchTrackResponse.ItemResult> results = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            PlaybackRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                itemKeys.add(null);
+                results.add(BatchTrackResponse.ItemResult.builder()
+                        .index(i)
+                        .status(BatchTrackResponse.Status.REJECTED)
+                        .error(error)
                         .build());
+                continue;
+            }
+            PlaybackKey key = PlaybackKey.of(request.getUserId(), request.getContentId());
+            collapsed.merge(key, PendingPlayback.of(request, now), PendingPlayback::then);
+            recordHeartbeat(request, now);
+            itemKeys.add(key);
+            results.add(null);
+        }
+
+        Map<PlaybackKey, PlaybackResponse> applied = collapsed.isEmpty()
+                ? Map.of()
+                : applyCollapsed(new ArrayList<>(collapsed.values()));
 
-        // Update position
-        if (request.getPositionSeconds() != null) {
-            int positionDiff = request.getPositionSeconds() - history.getLastPositionSeconds();
-            if (positionDiff > 0) {
-                history.setWatchTimeSeconds(history.getWatchTimeSeconds() + positionDiff);
+        int appliedCount = 0;
+        for (int i = 0; i < itemKeys.size(); i++) {
+            PlaybackKey key = itemKeys.get(i);
+            if (key != null) {
+                appliedCount++;
+                results.set(i, BatchTrackResponse.ItemResult.builder()
+                        .index(i)
+                        .status(BatchTrackResponse.Status.APPLIED)
+                        .playback(applied.get(key))
+                        .build());
             }
-            history.setLastPositionSeconds(request.getPositionSeconds());
         }
+        log.debug("Tracked batch of {} heartbeats as {} playback pairs", appliedCount, collapsed.size());
 
-        // Mark as completed if requested
-        if (Boolean.TRUE.equals(request.getCompleted())) {
-            history.setCompleted(true);
+        return BatchTrackResponse.builder()
+                .received(requests.size())
+                .applied(appliedCount)
+                .rejected(requests.size() - appliedCount)
+                .results(results)
+                .build();
+    }
+
+    private Map<PlaybackKey, PlaybackResponse> applyCollapsed(List<PendingPlayback> collapsed) {
+        Map<PlaybackKey, PlaybackResponse> responses = new HashMap<>();
+        if (playbackProperties.getWriteBehind().isEnabled()) {
+            for (PendingPlayback pending : collapsed) {
+                PendingPlayback buffered = heartbeatBuffer.add(pending);
+                responses.put(PlaybackKey.of(pending.getUserId(), pending.getContentId()), toBufferedResponse(buffered));
+            }
+            flushIfBufferFull();
+            return responses;
         }
 
-        history = viewingHistoryRepository.save(history);
-        log.info("Playback updated: watchTime={}s, position={}s", 
-                history.getWatchTimeSeconds(), history.getLastPositionSeconds());
+        // One transaction and one JDBC batch for the whole set of pairs
+        List<PlaybackUpsert> upserts = viewingHistoryRepository.mergeAll(collapsed);
+        for (int i = 0; i < collapsed.size(); i++) {
+            PendingPlayback pending = collapsed.get(i);
+            PlaybackUpsert upsert = upserts.get(i);
+            responses.put(PlaybackKey.of(pending.getUserId(), pending.getContentId()), toResponse(upsert.getHistory()));
+            eventPublisher.publishEvent(TrackedPlayback.of(pending, upsert));
+        }
+        return responses;
+    }
 
-        return toResponse(history);
+    private String validate(PlaybackRequest request) {
+        if (request == null) {
+            return "Malformed request";
+        }
+        Set<ConstraintViolation<PlaybackRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void flushIfBufferFull() {
+        if (heartbeatBuffer.size() >= playbackProperties.getWriteBehind().getMaxBufferSize()) {
+            heartbeatFlusher.flush();
+        }
+    }
+
+    private PlaybackResponse toBufferedResponse(PendingPlayback pending) {
+        return PlaybackResponse.builder()
+                .userId(pending.getUserId())
+                .contentId(pending.getContentId())
+                .lastPositionSeconds(pending.getLastPositionSeconds())
+                .completed(pending.isCompleted())
+                .updatedAt(pending.getUpdatedAt())
+                .build();
     }
 
     public PlaybackResponse getPlaybackStatus(Long userId, Long contentId) {
-        ViewingHistory history = viewingHistoryRepository
-                .findByUserIdAndContentId(userId, contentId)
+        Optional<ViewingHistory> stored = viewingHistoryRepository.findByUserIdAndContentId(userId, contentId);
+        Optional<PendingPlayback> pending = heartbeatBuffer.find(userId, contentId,
+                stored.map(ViewingHistory::getUpdatedAt).orElse(null));
+
+        ViewingHistory history = pending
+                .map(p -> p.applyTo(stored.orElse(null)))
+                .or(() -> stored)
                 .orElseThrow(() -> new IllegalArgumentException("No playback history found"));
         return toResponse(history);
     }
 
     public Page<PlaybackResponse> getViewingHistory(Long userId, Pageable pageable) {
         return viewingHistoryRepository.findByUserId(userId, pageable)
-                .map(this::toResponse);
+                .map(PlaybackService::toResponse);
     }
 
-    public Page<PlaybackResponse> getContinueWatching(Long userId, Pageable pageable) {
-        return viewingHistoryRepository.findContinueWatching(userId, pageable)
-                .map(this::toResponse);
+    /**
+     * Seeks past {@code cursor} instead of skipping rows, so every slice costs the same as the first.
+     * A null cursor starts from the most recently watched item.
+     */
+    public CursorPage<PlaybackResponse> getContinueWatching(Long userId, String cursor, int size) {
+        // One extra row tells whether another slice follows without a count query
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ViewingHistory> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = viewingHistoryRepository.findContinueWatching(userId, limit);
+        } else {
+            ContinueWatchingCursor after = ContinueWatchingCursor.decode(cursor);
+            rows = viewingHistoryRepository.findContinueWatchingAfter(userId, after.getUpdatedAt(), after.getId(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ViewingHistory> slice = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<PlaybackResponse>builder()
+                .content(slice.stream().map(PlaybackService::toResponse).toList())
+                .nextCursor(hasNext ? ContinueWatchingCursor.after(slice.get(size - 1)).encode() : null)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
+    }
+
+    public ContentStats getContentStats(Long contentId) {
+        return contentStatsRepository.findById(contentId)
+                .orElseGet(() -> emptyStats(contentId));
+    }
+
+    private static ContentStats emptyStats(Long contentId) {
+        return ContentStats.builder()
+                .contentId(contentId)
+                .uniqueViewers(0L)
+                .totalWatchTimeSeconds(0L)
+                .completions(0L)
+                .starts(0L)
+                .build();
+    }
+
+    /**
+     * Rollup rows for many content items in one query, in request order with duplicates removed.
+     * Content with no playback yet gets zeros, as in {@link #getContentStats(Long)}.
+     */
+    public List<ContentStats> getContentStats(Collection<Long> contentIds) {
+        Set<Long> ids = new LinkedHashSet<>(contentIds);
+        Map<Long, ContentStats> found = new HashMap<>();
+        contentStatsRepository.findAllById(ids).forEach(stats -> found.put(stats.getContentId(), stats));
+        return ids.stream()
+                .map(id -> found.getOrDefault(id, emptyStats(id)))
+                .toList();
     }
 
     public Long getUniqueViewers(Long contentId) {
-        return viewingHistoryRepository.countUniqueViewersByContentId(contentId);
+        return getContentStats(contentId).getUniqueViewers();
     }
 
     public Long getTotalWatchTime(Long contentId) {
-        Long total = viewingHistoryRepository.sumWatchTimeByContentId(contentId);
-        return total != null ? total : 0L;
-    }
-    
-    public Map<String, Long> getPlatformAnalytics() {
-        Long totalSessions = viewingHistoryRepository.count();
-        Long totalWatchTime = viewingHistoryRepository.sumTotalWatchTime();
-        return Map.of(
-            "totalSessions", totalSessions,
-            "totalWatchTimeSeconds", totalWatchTime != null ? totalWatchTime : 0L
-        );
+        return getContentStats(contentId).getTotalWatchTimeSeconds();
     }
 
-    private PlaybackResponse toResponse(ViewingHistory history) {
+    /**
+     * Recomputes content_stats from viewing_history to repair drift in the incrementally maintained rollup.
+     */
+    @Transactional
+    public int rebuildContentStats() {
+        int removed = contentStatsRepository.deleteOrphaned();
+        int rebuilt = contentStatsRepository.rebuildFromHistory();
+        log.info("Rebuilt content_stats: {} rows recomputed, {} orphaned rows removed", rebuilt, removed);
+        return rebuilt;
+    }
+    
+    static PlaybackResponse toResponse(ViewingHistory history) {
         return PlaybackResponse.builder()
                 .id(history.getId())
                 .userId(history.getUserId())
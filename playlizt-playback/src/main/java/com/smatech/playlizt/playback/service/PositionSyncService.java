@@ -0,0 +1,113 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:12
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.dto.PositionUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open position-sync sockets per user, and the fan-out of position changes to them. Sessions are held by
+ * this instance only, so a user's devices see each other's positions when they are connected to the
+ * same playback instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PositionSyncService {
+
+    private final PlaybackProperties playbackProperties;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<Long, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a device and returns the session to write to. Sends from several request threads are
+     * serialised by the decorator, which also drops a device whose buffer stays full.
+     */
+    public WebSocketSession register(Long userId, WebSocketSession session) {
+        PlaybackProperties.Sync sync = playbackProperties.getSync();
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session,
+                (int) sync.getSendTimeLimit().toMillis(), sync.getSendBufferSizeLimit());
+        boolean[] accepted = {false};
+        sessions.compute(userId, (id, devices) -> {
+            Set<WebSocketSession> open = devices != null ? devices : ConcurrentHashMap.newKeySet();
+            if (open.size() < sync.getMaxSessionsPerUser()) {
+                open.add(decorated);
+                accepted[0] = true;
+            }
+            return open;
+        });
+        if (!accepted[0]) {
+            throw new IllegalStateException("Too many sync connections for user " + userId);
+        }
+        return decorated;
+    }
+
+    public void unregister(Long userId, WebSocketSession session) {
+        sessions.computeIfPresent(userId, (id, devices) -> {
+            devices.removeIf(open -> open.getId().equals(session.getId()));
+            return devices.isEmpty() ? null : devices;
+        });
+    }
+
+    /**
+     * Pushes a position to every connected device of the user except the one that reported it
+     * ({@code originSessionId} is null for positions that arrived over HTTP).
+     */
+    public void broadcast(Long userId, PlaybackResponse playback, String originSessionId, String deviceId) {
+        Set<WebSocketSession> devices = sessions.get(userId);
+        if (devices == null || devices.isEmpty()) {
+            return;
+        }
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(PositionUpdate.of(playback, deviceId)));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialise position update for user {}: {}", userId, e.getMessage());
+            return;
+        }
+        for (WebSocketSession device : devices) {
+            if (device.getId().equals(originSessionId)) {
+                continue;
+            }
+            try {
+                device.sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Dropping sync connection {} for user {}: {}", device.getId(), userId, e.getMessage());
+                unregister(userId, device);
+                closeQuietly(device);
+            }
+        }
+    }
+
+    public int connectionCount(Long userId) {
+        Set<WebSocketSession> devices = sessions.get(userId);
+        return devices != null ? devices.size() : 0;
+    }
+
+    private static void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 19:34
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ReactiveViewingHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Heartbeat tracking and status for the reactive stack. Writes go through R2DBC with the same upsert as
+ * {@link PlaybackService}, and the same {@link TrackedPlayback} event is published, so every in-memory
+ * analytic behaves identically in both stacks.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePlaybackService {
+
+    private final ReactiveViewingHistoryRepository reactiveViewingHistoryRepository;
+    private final PlaybackService playbackService;
+    private final PlaybackProperties playbackProperties;
+    private final HeartbeatBuffer heartbeatBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Mono<PlaybackResponse> startOrUpdatePlayback(PlaybackRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        playbackService.recordHeartbeat(request, now);
+        if (playbackProperties.getWriteBehind().isEnabled()) {
+            // A full buffer makes the caller flush over JDBC, so keep it off the event loop
+            return Mono.fromCallable(() -> playbackService.bufferPlayback(request, now))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        PendingPlayback pending = PendingPlayback.of(request, now);
+        return reactiveViewingHistoryRepository.upsert(pending)
+                .doOnNext(upsert -> eventPublisher.publishEvent(TrackedPlayback.of(pending, upsert)))
+                .map(upsert -> PlaybackService.toResponse(upsert.getHistory()));
+    }
+
+    public Mono<PlaybackResponse> getPlaybackStatus(Long userId, Long contentId) {
+        return reactiveViewingHistoryRepository.findByUserIdAndContentId(userId, contentId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                // As in PlaybackService, an in-flight entry the row already holds is left out
+                .flatMap(stored -> heartbeatBuffer.find(userId, contentId,
+                                stored.map(ViewingHistory::getUpdatedAt).orElse(null))
+                        .map(p -> Mono.just(p.applyTo(stored.orElse(null))))
+                        .or(() -> stored.map(Mono::just))
+                        .orElseGet(() -> Mono.error(new IllegalArgumentException("No playback history found"))))
+                .map(PlaybackService::toResponse);
+    }
+}
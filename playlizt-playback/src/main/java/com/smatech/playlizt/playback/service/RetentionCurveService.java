@@ -0,0 +1,153 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 16:25
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.RetentionHistogram;
+import zw.co.t3ratech.playlizt.playback.dto.RetentionResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ContentRetention;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentRetentionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Audience retention curves per content, maintained from tracked heartbeats as changes to each viewer's
+ * furthest 5% bucket. Heartbeats only land on the curve once the content's duration is known, either from
+ * the heartbeat itself, an earlier one or the stored curve.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RetentionCurveService {
+
+    private final ContentRetentionRepository contentRetentionRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Bucket moves recorded by this instance since the last flush
+    private final ConcurrentHashMap<Long, RetentionHistogram> deltas = new ConcurrentHashMap<>();
+    // Duration each content's curve is kept with, from heartbeats or from its stored row
+    private final ConcurrentHashMap<Long, Integer> durations = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        Integer known = knownDuration(tracked.getContentId());
+        Integer duration = tracked.getDurationSeconds() != null ? tracked.getDurationSeconds() : known;
+        if (duration == null) {
+            return;
+        }
+        if (tracked.getDurationSeconds() != null) {
+            durations.put(tracked.getContentId(), duration);
+        }
+
+        // A viewer with an earlier row sits in the bucket of their previous maximum under the duration the
+        // curve was kept with; if no duration was known yet they were never placed and are added afresh
+        int from = tracked.getPreviousMaxPositionSeconds() == null || known == null
+                ? -1
+                : RetentionHistogram.bucketOf(tracked.getPreviousMaxPositionSeconds(), known);
+        int to = RetentionHistogram.bucketOf(tracked.getMaxPositionSeconds(), duration);
+        if (from != to) {
+            deltas.computeIfAbsent(tracked.getContentId(), id -> new RetentionHistogram()).move(from, to);
+        }
+    }
+
+    public RetentionResponse getRetention(Long contentId) {
+        Optional<ContentRetention> stored = contentRetentionRepository.findById(contentId);
+        RetentionHistogram histogram = stored
+                .map(r -> RetentionHistogram.fromBytes(r.getBuckets()))
+                .orElseGet(RetentionHistogram::new);
+        RetentionHistogram pending = deltas.get(contentId);
+        if (pending != null) {
+            histogram.add(pending.toArray());
+        }
+
+        long[] reached = RetentionHistogram.reached(histogram.toArray());
+        long viewers = reached[0];
+        List<RetentionResponse.RetentionPoint> curve = new ArrayList<>(reached.length);
+        for (int i = 0; i < reached.length; i++) {
+            curve.add(RetentionResponse.RetentionPoint.builder()
+                    .percentOfContent(i * RetentionHistogram.BUCKET_PERCENT)
+                    .viewersReached(reached[i])
+                    .percentOfViewers(viewers == 0 ? 0.0 : 100.0 * reached[i] / viewers)
+                    .build());
+        }
+
+        return RetentionResponse.builder()
+                .contentId(contentId)
+                .durationSeconds(Optional.ofNullable(durations.get(contentId))
+                        .orElse(stored.map(ContentRetention::getDurationSeconds).orElse(null)))
+                .viewers(viewers)
+                .curve(curve)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${playback.retention.flush-interval:PT1M}")
+    public void flush() {
+        int written = 0;
+        for (Map.Entry<Long, RetentionHistogram> entry : deltas.entrySet()) {
+            int[] taken = entry.getValue().takeIfDirty();
+            if (taken == null) {
+                continue;
+            }
+            try {
+                persist(entry.getKey(), taken);
+                written++;
+            } catch (RuntimeException e) {
+                entry.getValue().add(taken);
+                log.warn("Failed to persist retention histogram for content {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (written > 0) {
+            log.debug("Persisted {} retention histograms", written);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Integer knownDuration(Long contentId) {
+        Integer duration = durations.get(contentId);
+        if (duration == null) {
+            duration = contentRetentionRepository.findById(contentId)
+                    .map(ContentRetention::getDurationSeconds)
+                    .orElse(null);
+            if (duration != null) {
+                durations.putIfAbsent(contentId, duration);
+            }
+        }
+        return duration;
+    }
+
+    private void persist(Long contentId, int[] changes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ContentRetention stored = contentRetentionRepository.findForUpdate(contentId)
+                    .orElseGet(() -> ContentRetention.builder()
+                            .contentId(contentId)
+                            .buckets(new RetentionHistogram().toBytes())
+                            .build());
+            RetentionHistogram merged = RetentionHistogram.fromBytes(stored.getBuckets());
+            merged.addClamped(changes);
+            stored.setBuckets(merged.toBytes());
+            stored.setDurationSeconds(durations.getOrDefault(contentId, stored.getDurationSeconds()));
+            stored.setUpdatedAt(LocalDateTime.now());
+            contentRetentionRepository.save(stored);
+        });
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 18:20
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.TopK;
+import zw.co.t3ratech.playlizt.playback.analytics.TrendingScores;
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.TrendingResponse;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trending content from the playback stream: each content's score is its watch minutes plus one per new
+ * viewer, decayed with a configurable half-life, so recent activity outranks lifetime totals.
+ * Rankings are recomputed on a short interval into an immutable snapshot that requests read directly.
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    public static final String ALL_CATEGORIES = "ALL";
+
+    private static final double EVICT_BELOW = 0.01;
+
+    private final PlaybackProperties playbackProperties;
+    private final TrendingScores scores;
+    private final ConcurrentHashMap<Long, String> categories = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), LocalDateTime.now());
+
+    public TrendingService(PlaybackProperties playbackProperties) {
+        this.playbackProperties = playbackProperties;
+        this.scores = new TrendingScores(playbackProperties.getTrending().getHalfLife(), System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        double weight = tracked.getWatchTimeDeltaSeconds() / 60.0 + (tracked.isNewSession() ? 1 : 0);
+        if (weight <= 0) {
+            return;
+        }
+        if (tracked.getCategory() != null && !tracked.getCategory().isBlank()) {
+            categories.put(tracked.getContentId(), normalize(tracked.getCategory()));
+        }
+        scores.add(tracked.getContentId(), weight, System.currentTimeMillis());
+    }
+
+    public TrendingResponse getTrending(String category, int limit) {
+        String key = category == null || category.isBlank() ? ALL_CATEGORIES : normalize(category);
+        Snapshot current = snapshot;
+        List<TopK.Entry> ranked = current.getTopByCategory().getOrDefault(key, List.of());
+        return TrendingResponse.builder()
+                .category(key)
+                .halfLifeHours(playbackProperties.getTrending().getHalfLife().toMinutes() / 60.0)
+                .asOf(current.getAsOf())
+                .items(ranked.stream()
+                        .limit(limit)
+                        .map(entry -> TrendingResponse.TrendingItem.builder()
+                                .contentId(entry.getId())
+                                .category(categories.get(entry.getId()))
+                                .score(entry.getScore())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * One pass over all scores feeds a bounded min-heap per category plus one across all categories.
+     */
+    @Scheduled(fixedDelayString = "${playback.trending.refresh-interval:PT10S}")
+    public void refresh() {
+        PlaybackProperties.Trending trending = playbackProperties.getTrending();
+        long now = System.currentTimeMillis();
+        // Keeps the stored values, which grow by 2x per half-life, well inside double range
+        if (now - scores.getEpochMillis() > trending.getHalfLife().toMillis() * 16) {
+            scores.rebase(now, EVICT_BELOW);
+            categories.keySet().removeIf(contentId -> scores.scoreOf(contentId, now) == 0);
+        }
+
+        int k = trending.getTopK();
+        Map<String, TopK> heaps = new HashMap<>();
+        TopK all = new TopK(k);
+        scores.forEach(now, (contentId, score) -> {
+            all.offer(contentId, score);
+            String category = categories.get(contentId);
+            if (category != null) {
+                heaps.computeIfAbsent(category, c -> new TopK(k)).offer(contentId, score);
+            }
+        });
+
+        Map<String, List<TopK.Entry>> top = new HashMap<>(heaps.size() + 1);
+        heaps.forEach((category, heap) -> top.put(category, heap.toList()));
+        top.put(ALL_CATEGORIES, all.toList());
+        snapshot = new Snapshot(top, LocalDateTime.now());
+    }
+
+    private static String normalize(String category) {
+        return category.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @Value
+    private static class Snapshot {
+        Map<String, List<TopK.Entry>> topByCategory;
+        LocalDateTime asOf;
+    }
+}
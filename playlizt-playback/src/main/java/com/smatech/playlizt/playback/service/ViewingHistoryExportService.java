@@ -0,0 +1,84 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/18 00:40
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes viewing history as newline-delimited {@link zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse}
+ * rows straight from a database cursor, so an export holds one fetch of rows in memory however large it is
+ * and runs no COUNT.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewingHistoryExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final ViewingHistoryRepository viewingHistoryRepository;
+    private final PlaybackProperties playbackProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rejects filters the export would refuse, so callers can fail the request before streaming starts.
+     */
+    public void validate(Long userId, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (userId != null) {
+            return;
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Exporting all users needs both 'from' and 'to'");
+        }
+        int maxRangeDays = playbackProperties.getExport().getMaxRangeDays();
+        if (Duration.between(from, to).compareTo(Duration.ofDays(maxRangeDays)) > 0) {
+            throw new IllegalArgumentException("Export range may span at most " + maxRangeDays + " days");
+        }
+    }
+
+    /**
+     * Streams the matching rows to {@code out}, flushing after every fetch, and returns how many were written.
+     * The transaction keeps the server-side cursor open; {@code out} is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        validate(userId, from, to);
+        int fetchSize = Math.max(1, playbackProperties.getExport().getFetchSize());
+        long written = 0;
+        try (Stream<ViewingHistory> rows = viewingHistoryRepository.streamHistory(userId, from, to, fetchSize)) {
+            Iterator<ViewingHistory> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(PlaybackService.toResponse(iterator.next())));
+                out.write(NEWLINE);
+                if (++written % fetchSize == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.debug("Exported {} viewing history rows (userId={}, from={}, to={})", written, userId, from, to);
+        return written;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 23:30
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.TDigest;
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.WatchTimePercentiles;
+import zw.co.t3ratech.playlizt.playback.entity.ContentWatchTimeDigest;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackKey;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentWatchTimeDigestRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watch time distribution per content as t-digests over finished viewing sessions. A session is a run of
+ * heartbeats for one (user, content) pair with no gap longer than the idle timeout; its watch time is what
+ * viewing_history accumulated over that run, so returning viewers add a new session rather than re-counting
+ * their total.
+ * <p>
+ * Sessions are closed and their deltas persisted on flush. Open sessions are only known to the instance
+ * receiving their heartbeats, so a viewer whose heartbeats alternate between instances is recorded once
+ * per instance, as several shorter sessions. The gateway therefore routes playback requests with sticky
+ * sessions; keep that in place when running more than one instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WatchTimeDistributionService {
+
+    private static final double[] QUANTILES = {0.25, 0.5, 0.75, 0.9, 0.99};
+
+    private final ContentWatchTimeDigestRepository contentWatchTimeDigestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PlaybackProperties playbackProperties;
+    private final ConcurrentHashMap<PlaybackKey, OpenSession> openSessions = new ConcurrentHashMap<>();
+    // Sessions finished on this instance since the last flush
+    private final ConcurrentHashMap<Long, TDigest> deltas = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        openSessions.compute(PlaybackKey.of(tracked.getUserId(), tracked.getContentId()), (key, session) -> {
+            if (session == null) {
+                session = new OpenSession(tracked.getWatchTimeSeconds() - tracked.getWatchTimeDeltaSeconds());
+            }
+            session.lastWatchTimeSeconds = tracked.getWatchTimeSeconds();
+            session.lastSeen = tracked.getTrackedAt();
+            return session;
+        });
+    }
+
+    public WatchTimePercentiles getPercentiles(Long contentId) {
+        TDigest digest = contentWatchTimeDigestRepository.findById(contentId)
+                .map(stored -> TDigest.fromBytes(stored.getCentroids()))
+                .orElseGet(this::newDigest);
+        return toPercentiles(withPending(contentId, digest));
+    }
+
+    /**
+     * Percentiles for each of the given content ids, read in one query.
+     */
+    public Map<Long, WatchTimePercentiles> getPercentiles(Collection<Long> contentIds) {
+        Map<Long, TDigest> digests = new HashMap<>();
+        contentWatchTimeDigestRepository.findAllById(contentIds)
+                .forEach(stored -> digests.put(stored.getContentId(), TDigest.fromBytes(stored.getCentroids())));
+        Map<Long, WatchTimePercentiles> percentiles = new HashMap<>();
+        for (Long contentId : contentIds) {
+            TDigest digest = digests.containsKey(contentId) ? digests.get(contentId) : newDigest();
+            percentiles.put(contentId, toPercentiles(withPending(contentId, digest)));
+        }
+        return percentiles;
+    }
+
+    @Scheduled(fixedDelayString = "${playback.watch-time.flush-interval:PT1M}")
+    public void flush() {
+        closeSessions(LocalDateTime.now().minus(playbackProperties.getWatchTime().getSessionIdleTimeout()));
+        int written = 0;
+        for (Map.Entry<Long, TDigest> entry : deltas.entrySet()) {
+            TDigest delta = entry.getValue();
+            byte[] taken = delta.takeIfDirty();
+            if (taken == null) {
+                deltas.remove(entry.getKey(), delta);
+                continue;
+            }
+            try {
+                persist(entry.getKey(), TDigest.fromBytes(taken));
+                written++;
+            } catch (RuntimeException e) {
+                delta.merge(TDigest.fromBytes(taken));
+                log.warn("Failed to persist watch time digest for content {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (written > 0) {
+            log.debug("Persisted {} watch time digests", written);
+        }
+    }
+
+    /**
+     * Sessions still open at shutdown are finished as they stand; a viewer who carries on will start a new one.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        closeSessions(LocalDateTime.MAX);
+        flush();
+    }
+
+    private void closeSessions(LocalDateTime idleBefore) {
+        for (PlaybackKey key : openSessions.keySet()) {
+            OpenSession[] closed = new OpenSession[1];
+            openSessions.computeIfPresent(key, (k, session) -> {
+                if (session.lastSeen.isBefore(idleBefore)) {
+                    closed[0] = session;
+                    return null;
+                }
+                return session;
+            });
+            if (closed[0] != null && closed[0].watchedSeconds() > 0) {
+                deltas.computeIfAbsent(key.getContentId(), id -> newDigest()).add(closed[0].watchedSeconds());
+            }
+        }
+    }
+
+    private TDigest withPending(Long contentId, TDigest digest) {
+        TDigest pending = deltas.get(contentId);
+        return pending != null ? digest.merge(pending) : digest;
+    }
+
+    private TDigest newDigest() {
+        return new TDigest(playbackProperties.getWatchTime().getCompression());
+    }
+
+    private void persist(Long contentId, TDigest delta) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ContentWatchTimeDigest stored = contentWatchTimeDigestRepository.findForUpdate(contentId)
+                    .orElseGet(() -> ContentWatchTimeDigest.builder()
+                            .contentId(contentId)
+                            .build());
+            TDigest merged = stored.getCentroids() == null ? newDigest() : TDigest.fromBytes(stored.getCentroids());
+            merged.merge(delta);
+            stored.setCentroids(merged.toBytes());
+            stored.setSessions(merged.size());
+            stored.setUpdatedAt(LocalDateTime.now());
+            contentWatchTimeDigestRepository.save(stored);
+        });
+    }
+
+    private static WatchTimePercentiles toPercentiles(TDigest digest) {
+        long sessions = digest.size();
+        Double[] values = new Double[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            values[i] = sessions == 0 ? null : Math.round(digest.quantile(QUANTILES[i]) * 10) / 10.0;
+        }
+        return WatchTimePercentiles.builder()
+                .sessions(sessions)
+                .p25(values[0])
+                .p50(values[1])
+                .p75(values[2])
+                .p90(values[3])
+                .p99(values[4])
+                .build();
+    }
+
+    /**
+     * Watch time accumulated by viewing_history since the session's first heartbeat. Only touched inside
+     * map compute calls, which serialise access per key.
+     */
+    private static final class OpenSession {
+        private final int startWatchTimeSeconds;
+        private int lastWatchTimeSeconds;
+        private LocalDateTime lastSeen;
+
+        private OpenSession(int startWatchTimeSeconds) {
+            this.startWatchTimeSeconds = startWatchTimeSeconds;
+        }
+
+        private int watchedSeconds() {
+            return lastWatchTimeSeconds - startWatchTimeSeconds;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 21:58
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Roaring bitmap of every content id each user has watched. A user's bitmap is built from viewing_history
+ * on first use and then kept current from {@link TrackedPlayback} events, so the full watched set costs a
+ * few bytes per user rather than a history page per request.
+ * <p>
+ * Events only reach the instance that wrote the heartbeat, so a bitmap is dropped and rebuilt from
+ * viewing_history once {@code playback.watched.reload-after} has passed since it was loaded, however often it
+ * is read or updated in between. That is the bound on how stale content started through another instance
+ * can be.
+ * <p>
+ * Bitmaps are replaced rather than mutated when a user starts new content, so a returned bitmap is a
+ * stable snapshot that may be read without locking but must not be modified.
+ */
+@Service
+@Slf4j
+public class WatchedContentService {
+
+    private final ViewingHistoryRepository viewingHistoryRepository;
+    private final Cache<Long, Roaring64NavigableMap> bitmaps;
+
+    public WatchedContentService(ViewingHistoryRepository viewingHistoryRepository, PlaybackProperties playbackProperties) {
+        this.viewingHistoryRepository = viewingHistoryRepository;
+        PlaybackProperties.Watched watched = playbackProperties.getWatched();
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumSize(watched.getMaxUsers())
+                .expireAfter(Expiry.creating((Long userId, Roaring64NavigableMap bitmap) -> watched.getReloadAfter()))
+                .build();
+    }
+
+    @EventListener
+    public void onPlaybackTracked(TrackedPlayback tracked) {
+        if (!tracked.isNewSession()) {
+            return;
+        }
+        // Users not in memory pick the new row up from viewing_history when next loaded
+        bitmaps.asMap().computeIfPresent(tracked.getUserId(), (userId, watched) -> {
+            if (watched.contains(tracked.getContentId())) {
+                return watched;
+            }
+            Roaring64NavigableMap updated = new Roaring64NavigableMap();
+            updated.or(watched);
+            updated.addLong(tracked.getContentId());
+            return updated;
+        });
+    }
+
+    public Roaring64NavigableMap getWatched(Long userId) {
+        return bitmaps.get(userId, this::load);
+    }
+
+    /**
+     * The user's watched set in the portable 64-bit Roaring format, readable by
+     * {@link Roaring64NavigableMap#deserializePortable} and the other Roaring implementations.
+     */
+    public byte[] getWatchedBytes(Long userId) {
+        Roaring64NavigableMap watched = getWatched(userId);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            watched.serializePortable(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Roaring64NavigableMap load(Long userId) {
+        Roaring64NavigableMap watched = new Roaring64NavigableMap();
+        for (Long contentId : viewingHistoryRepository.findContentIdsByUserId(userId)) {
+            watched.addLong(contentId);
+        }
+        watched.runOptimize();
+        log.debug("Loaded watched-content bitmap for user {} with {} items", userId, watched.getLongCardinality());
+        return watched;
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Created in Windsurf Editor 1.12.41 - GPT 5.1 (High Reasoning)
+ * Author       : Tsungai Kaviya
+ * Copyright    : TeraTech Solutions (Pvt) Ltd
+ * Date/Time    : 2026/10/17 22:48
+ * Email        : tkaviya@t3ratech.co.zw
+ */
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.WatchedSeconds;
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.CoverageResponse;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.entity.UserContentId;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingCoverage;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackKey;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingCoverageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exactly which seconds of a content item each user has played. Consecutive heartbeats mark the seconds
+ * between their positions; a backward or overly long forward jump is a seek and marks nothing, so skipped
+ * parts stay unwatched and re-watched parts are only counted once. Unlike watch time this never exceeds the
+ * content's duration.
+ * <p>
+ * Newly marked seconds are kept per (user, content) and OR-ed into the stored run-length bitset on flush.
+ * The last position is only known to the instance receiving the heartbeats, so a session that moves between
+ * instances loses at most the interval spanning the move.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WatchedCoverageService {
+
+    private final ViewingCoverageRepository viewingCoverageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PlaybackProperties playbackProperties;
+    private final ConcurrentHashMap<PlaybackKey, SessionCoverage> sessions = new ConcurrentHashMap<>();
+
+    public void record(PlaybackRequest request, LocalDateTime now) {
+        Integer position = request.getPositionSeconds();
+        if (position == null) {
+            return;
+        }
+        PlaybackProperties.Coverage coverage = playbackProperties.getCoverage();
+        PlaybackKey key = PlaybackKey.of(request.getUserId(), request.getContentId());
+        while (true) {
+            SessionCoverage session = sessions.computeIfAbsent(key, k -> new SessionCoverage());
+            synchronized (session) {
+                // Removed by a concurrent flush between lookup and lock; start again with a fresh entry
+                if (session.evicted) {
+                    continue;
+                }
+                session.advance(Math.min(position, coverage.getMaxSeconds()),
+                        (int) coverage.getMaxHeartbeatGap().toSeconds());
+                if (request.getDurationSeconds() != null) {
+                    session.durationSeconds = request.getDurationSeconds();
+                }
+                session.lastHeartbeat = now;
+                return;
+            }
+        }
+    }
+
+    public CoverageResponse getCoverage(Long userId, Long contentId) {
+        Optional<ViewingCoverage> stored = viewingCoverageRepository.findById(new UserContentId(userId, contentId));
+        WatchedSeconds watched = stored
+                .map(coverage -> WatchedSeconds.fromRunLength(coverage.getRuns()))
+                .orElseGet(WatchedSeconds::new);
+        Integer durationSeconds = stored.map(ViewingCoverage::getDurationSeconds).orElse(null);
+
+        SessionCoverage session = sessions.get(PlaybackKey.of(userId, contentId));
+        if (session != null) {
+            synchronized (session) {
+                watched.or(session.pending);
+                if (session.durationSeconds != null) {
+                    durationSeconds = session.durationSeconds;
+                }
+            }
+        }
+
+        return CoverageResponse.builder()
+                .userId(userId)
+                .contentId(contentId)
+                .uniqueSecondsWatched(watched.uniqueSeconds())
+                .durationSeconds(durationSeconds)
+                .coveragePercent(durationSeconds != null && durationSeconds > 0
+                        ? watched.coveragePercent(durationSeconds)
+                        : null)
+                .watchedRanges(watched.ranges().stream()
+                        .map(range -> CoverageResponse.WatchedRange.builder()
+                                .startSecond(range[0])
+                                .endSecond(range[1])
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${playback.coverage.flush-interval:PT1M}")
+    public void flush() {
+        LocalDateTime idleBefore = LocalDateTime.now().minus(playbackProperties.getCoverage().getIdleTimeout());
+        int written = 0;
+        for (Map.Entry<PlaybackKey, SessionCoverage> entry : sessions.entrySet()) {
+            SessionCoverage session = entry.getValue();
+            WatchedSeconds pending;
+            Integer durationSeconds;
+            synchronized (session) {
+                pending = session.takePending();
+                durationSeconds = session.durationSeconds;
+            }
+            if (pending != null) {
+                try {
+                    persist(entry.getKey(), pending, durationSeconds);
+                    written++;
+                } catch (RuntimeException e) {
+                    synchronized (session) {
+                        session.pending.or(pending);
+                    }
+                    log.warn("Failed to persist watched coverage for {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+            synchronized (session) {
+                if (session.pending.isEmpty() && session.lastHeartbeat.isBefore(idleBefore)) {
+                    session.evicted = true;
+                    sessions.remove(entry.getKey(), session);
+                }
+            }
+        }
+        if (written > 0) {
+            log.debug("Persisted watched coverage for {} sessions", written);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(PlaybackKey key, WatchedSeconds pending, Integer durationSeconds) {
+        UserContentId id = new UserContentId(key.getUserId(), key.getContentId());
+        transactionTemplate.executeWithoutResult(status -> {
+            ViewingCoverage stored = viewingCoverageRepository.findForUpdate(id)
+                    .orElseGet(() -> ViewingCoverage.builder()
+                            .id(id)
+                            .build());
+            WatchedSeconds merged = WatchedSeconds.fromRunLength(stored.getRuns()).or(pending);
+            stored.setRuns(merged.toRunLength());
+            stored.setUniqueSeconds(merged.uniqueSeconds());
+            if (durationSeconds != null) {
+                stored.setDurationSeconds(durationSeconds);
+            }
+            stored.setUpdatedAt(LocalDateTime.now());
+            viewingCoverageRepository.save(stored);
+        });
+    }
+
+    /**
+     * Heartbeat state of one (user, content) pair on this instance. Guarded by its own monitor.
+     */
+    static final class SessionCoverage {
+        private WatchedSeconds pending = new WatchedSeconds();
+        private Integer lastPosition;
+        private Integer durationSeconds;
+        private LocalDateTime lastHeartbeat;
+        private boolean evicted;
+
+        void advance(int position, int maxGapSeconds) {
+            if (lastPosition != null && position > lastPosition && position - lastPosition <= maxGapSeconds) {
+                pending.mark(lastPosition, position);
+            }
+            lastPosition = position;
+        }
+
+        WatchedSeconds takePending() {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            WatchedSeconds taken = pending;
+            pending = new WatchedSeconds();
+            return taken;
+        }
+    }
+}
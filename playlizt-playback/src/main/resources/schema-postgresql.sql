@@ -0,0 +1,21 @@
+-- Postgres-only DDL that JPA index annotations cannot express. Runs after Hibernate has created the tables.
+
+-- Continue Watching: seek by (updated_at, id) within one user's unfinished rows. The INCLUDE columns let the
+-- query run as an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_viewing_continue
+    ON playlizt_playback.viewing_history (user_id, updated_at DESC, id DESC)
+    INCLUDE (content_id, watch_time_seconds, last_position_seconds, max_position_seconds, completed, created_at)
+    WHERE completed = false AND last_position_seconds > 0;
+
+-- Append-only heartbeat log, one partition per day. Partitions are created ahead of time and dropped past
+-- retention by PlaybackEventPartitionManager; viewing_history is the compacted view of this log.
+CREATE TABLE IF NOT EXISTS playlizt_playback.playback_events (
+    user_id          BIGINT    NOT NULL,
+    content_id       BIGINT    NOT NULL,
+    position_seconds INTEGER,
+    completed        BOOLEAN   NOT NULL,
+    occurred_at      TIMESTAMP NOT NULL
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX IF NOT EXISTS idx_playback_events_content_time
+    ON playlizt_playback.playback_events (content_id, occurred_at);
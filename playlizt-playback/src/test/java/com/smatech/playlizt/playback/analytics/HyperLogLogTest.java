@@ -0,0 +1,57 @@
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void shouldEstimateWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long userId = 1; userId <= 100_000; userId++) {
+            sketch.offer(userId);
+        }
+
+        assertEquals(100_000, sketch.estimate(), 100_000 * HyperLogLog.RELATIVE_STANDARD_ERROR * 3);
+    }
+
+    @Test
+    void shouldBeExactEnoughForSmallAudiences() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long userId = 1; userId <= 50; userId++) {
+            sketch.offer(userId);
+            sketch.offer(userId);
+        }
+
+        assertEquals(50, sketch.estimate(), 2);
+    }
+
+    @Test
+    void shouldUnionSketchesWithoutDoubleCounting() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (long userId = 1; userId <= 20_000; userId++) {
+            monday.offer(userId);
+        }
+        for (long userId = 10_001; userId <= 30_000; userId++) {
+            tuesday.offer(userId);
+        }
+
+        HyperLogLog union = HyperLogLog.fromBytes(monday.toBytes()).merge(tuesday);
+
+        assertEquals(30_000, union.estimate(), 30_000 * HyperLogLog.RELATIVE_STANDARD_ERROR * 3);
+    }
+
+    @Test
+    void shouldReportDirtyOnlyAfterRegisterChanges() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertNull(sketch.takeIfDirty());
+
+        sketch.offer(42L);
+        assertNotNull(sketch.takeIfDirty());
+
+        sketch.offer(42L);
+        assertNull(sketch.takeIfDirty());
+    }
+}
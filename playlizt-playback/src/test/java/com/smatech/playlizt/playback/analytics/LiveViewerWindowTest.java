@@ -0,0 +1,58 @@
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveViewerWindowTest {
+
+    private static final long START = 1_000_000L;
+
+    private final LiveViewerWindow window = new LiveViewerWindow(Duration.ofSeconds(60), Duration.ofSeconds(10));
+
+    @Test
+    void shouldCountDistinctViewersPerContentAndOverall() {
+        window.record(1L, 100L, START);
+        window.record(1L, 100L, START + 5_000);
+        window.record(1L, 101L, START + 15_000);
+        window.record(2L, 100L, START + 15_000);
+
+        assertEquals(2, window.countViewers(1L, START + 15_000));
+        assertEquals(2, window.countAll(START + 15_000));
+        assertEquals(Map.of(1L, 2L, 2L, 1L), window.countByContent(START + 15_000));
+    }
+
+    @Test
+    void shouldAgeOutHeartbeatsOlderThanWindow() {
+        window.record(1L, 100L, START);
+        window.record(1L, 101L, START + 15_000);
+
+        assertEquals(1, window.countViewers(1L, START + 65_000));
+        assertEquals(0, window.countViewers(1L, START + 80_000));
+    }
+
+    @Test
+    void shouldRecycleBucketsAfterRingWrapsAround() {
+        window.record(1L, 100L, START);
+        window.record(1L, 102L, START + 200_000);
+
+        assertEquals(1, window.countViewers(1L, START + 200_000));
+        assertEquals(1, window.countAll(START + 200_000));
+    }
+
+    @Test
+    void shouldGrowPrimitiveSetBeyondInitialCapacity() {
+        LongHashSet set = new LongHashSet();
+        for (long i = 0; i < 10_000; i++) {
+            set.add(i);
+            set.add(i);
+        }
+
+        assertEquals(10_000, set.size());
+        assertTrue(set.contains(0L));
+        assertFalse(set.contains(10_000L));
+    }
+}
@@ -0,0 +1,71 @@
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionHistogramTest {
+
+    @Test
+    void shouldBucketByFivePercent() {
+        assertEquals(0, RetentionHistogram.bucketOf(0, 200));
+        assertEquals(0, RetentionHistogram.bucketOf(9, 200));
+        assertEquals(1, RetentionHistogram.bucketOf(10, 200));
+        assertEquals(10, RetentionHistogram.bucketOf(100, 200));
+        assertEquals(20, RetentionHistogram.bucketOf(200, 200));
+        assertEquals(20, RetentionHistogram.bucketOf(500, 200));
+    }
+
+    @Test
+    void shouldCountViewersReachingEachBucket() {
+        RetentionHistogram histogram = new RetentionHistogram();
+        histogram.move(-1, 0);
+        histogram.move(-1, 0);
+        histogram.move(0, 10);
+        histogram.move(-1, 20);
+
+        long[] reached = RetentionHistogram.reached(histogram.toArray());
+
+        assertEquals(3, reached[0]);
+        assertEquals(2, reached[10]);
+        assertEquals(1, reached[11]);
+        assertEquals(1, reached[20]);
+    }
+
+    @Test
+    void shouldResetDeltasWhenTaken() {
+        RetentionHistogram histogram = new RetentionHistogram();
+        histogram.move(-1, 3);
+
+        int[] taken = histogram.takeIfDirty();
+
+        assertEquals(1, taken[3]);
+        assertNull(histogram.takeIfDirty());
+        assertEquals(0, histogram.toArray()[3]);
+    }
+
+    @Test
+    void shouldNotLetDeltasTakeStoredCountsBelowZero() {
+        RetentionHistogram stored = new RetentionHistogram();
+        stored.move(-1, 4);
+        int[] deltas = new int[RetentionHistogram.BUCKET_COUNT];
+        deltas[4] = -3;
+        deltas[9] = 1;
+
+        stored.addClamped(deltas);
+
+        assertEquals(0, stored.toArray()[4]);
+        assertEquals(1, stored.toArray()[9]);
+    }
+
+    @Test
+    void shouldRoundTripThroughBytes() {
+        RetentionHistogram histogram = new RetentionHistogram();
+        histogram.move(-1, 7);
+        histogram.move(-1, 20);
+
+        RetentionHistogram restored = RetentionHistogram.fromBytes(histogram.toBytes());
+
+        assertArrayEquals(histogram.toArray(), restored.toArray());
+    }
+}
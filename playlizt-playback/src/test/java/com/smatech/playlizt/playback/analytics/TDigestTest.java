@@ -0,0 +1,72 @@
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TDigestTest {
+
+    @Test
+    void shouldEstimateQuantilesOfUniformValues() {
+        TDigest digest = new TDigest();
+        for (int i = 1; i <= 100_000; i++) {
+            digest.add(i);
+        }
+
+        assertEquals(100_000, digest.size());
+        assertEquals(50_000, digest.quantile(0.5), 500);
+        assertEquals(90_000, digest.quantile(0.9), 300);
+        assertEquals(99_000, digest.quantile(0.99), 100);
+        assertEquals(1, digest.quantile(0), 1e-9);
+        assertEquals(100_000, digest.quantile(1), 1e-9);
+    }
+
+    @Test
+    void shouldMergeDigestsLikeOneDigest() {
+        Random random = new Random(42);
+        TDigest first = new TDigest();
+        TDigest second = new TDigest();
+        for (int i = 0; i < 50_000; i++) {
+            first.add(random.nextDouble() * 600);
+            second.add(600 + random.nextDouble() * 600);
+        }
+
+        TDigest merged = new TDigest().merge(first).merge(second);
+
+        assertEquals(100_000, merged.size());
+        assertEquals(600, merged.quantile(0.5), 15);
+        assertEquals(1_080, merged.quantile(0.9), 15);
+    }
+
+    @Test
+    void shouldRoundTripCompactBytes() {
+        TDigest digest = new TDigest();
+        for (int i = 0; i < 1_000_000; i++) {
+            digest.add(i % 3_600);
+        }
+
+        byte[] bytes = digest.toBytes();
+        TDigest decoded = TDigest.fromBytes(bytes);
+
+        assertTrue(bytes.length < 1_024, "digest should stay under 1 KB but was " + bytes.length);
+        assertEquals(digest.size(), decoded.size());
+        assertEquals(digest.quantile(0.5), decoded.quantile(0.5), 1.0);
+    }
+
+    @Test
+    void shouldResetWhenTaken() {
+        TDigest digest = new TDigest();
+        assertNull(digest.takeIfDirty());
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+        digest.add(30);
+        byte[] taken = digest.takeIfDirty();
+
+        assertNotNull(taken);
+        assertEquals(1, TDigest.fromBytes(taken).size());
+        assertEquals(0, digest.size());
+        assertNull(digest.takeIfDirty());
+    }
+}
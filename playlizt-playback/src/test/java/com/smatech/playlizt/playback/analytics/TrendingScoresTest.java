@@ -0,0 +1,59 @@
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingScoresTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void shouldHalveScoreAfterEachHalfLife() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(6), 0);
+        scores.add(1L, 100, 0);
+
+        assertEquals(50, scores.scoreOf(1L, 6 * HOUR), 1e-9);
+        assertEquals(25, scores.scoreOf(1L, 12 * HOUR), 1e-9);
+    }
+
+    @Test
+    void shouldRankRecentActivityAboveOlderLargerTotals() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(6), 0);
+        scores.add(1L, 100, 0);
+        scores.add(2L, 40, 24 * HOUR);
+
+        TopK top = new TopK(1);
+        scores.forEach(24 * HOUR, top::offer);
+
+        assertEquals(2L, top.toList().get(0).getId());
+    }
+
+    @Test
+    void shouldKeepScoresAndEvictDecayedOnesWhenRebasing() {
+        TrendingScores scores = new TrendingScores(Duration.ofHours(1), 0);
+        scores.add(1L, 1, 0);
+        scores.add(2L, 1000, 10 * HOUR);
+
+        scores.rebase(10 * HOUR, 0.01);
+
+        assertEquals(1, scores.size());
+        assertEquals(1000, scores.scoreOf(2L, 10 * HOUR), 1e-6);
+        scores.add(2L, 1000, 10 * HOUR);
+        assertEquals(2000, scores.scoreOf(2L, 10 * HOUR), 1e-6);
+    }
+
+    @Test
+    void shouldKeepOnlyTopEntriesInDescendingOrder() {
+        TopK top = new TopK(3);
+        for (long id = 1; id <= 10; id++) {
+            top.offer(id, id * 1.5);
+        }
+
+        List<TopK.Entry> entries = top.toList();
+        assertEquals(List.of(10L, 9L, 8L), entries.stream().map(TopK.Entry::getId).toList());
+    }
+}
@@ -0,0 +1,61 @@
+package zw.co.t3ratech.playlizt.playback.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchedSecondsTest {
+
+    @Test
+    void shouldCountRewatchedSecondsOnce() {
+        WatchedSeconds watched = new WatchedSeconds();
+        watched.mark(0, 60);
+        watched.mark(30, 90);
+        watched.mark(0, 10);
+
+        assertEquals(90, watched.uniqueSeconds());
+        assertEquals(45.0, watched.coveragePercent(200), 1e-9);
+    }
+
+    @Test
+    void shouldReportWatchedRangesInOrder() {
+        WatchedSeconds watched = new WatchedSeconds();
+        watched.mark(100, 120);
+        watched.mark(0, 30);
+
+        List<int[]> ranges = watched.ranges();
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new int[]{0, 30}, ranges.get(0));
+        assertArrayEquals(new int[]{100, 120}, ranges.get(1));
+    }
+
+    @Test
+    void shouldRoundTripRunLengthEncoding() {
+        WatchedSeconds watched = new WatchedSeconds();
+        watched.mark(5, 7_205);
+        watched.mark(40_000, 40_001);
+
+        byte[] runs = watched.toRunLength();
+        WatchedSeconds decoded = WatchedSeconds.fromRunLength(runs);
+
+        assertTrue(runs.length <= 10);
+        assertEquals(watched.uniqueSeconds(), decoded.uniqueSeconds());
+        assertArrayEquals(watched.ranges().toArray(), decoded.ranges().toArray());
+    }
+
+    @Test
+    void shouldIgnoreSecondsPastDurationInCoverage() {
+        WatchedSeconds watched = new WatchedSeconds();
+        watched.mark(50, 150);
+
+        assertEquals(50.0, watched.coveragePercent(100), 1e-9);
+    }
+
+    @Test
+    void shouldRejectTruncatedRuns() {
+        assertThrows(IllegalArgumentException.class, () -> WatchedSeconds.fromRunLength(new byte[]{(byte) 0x80}));
+    }
+}
@@ -0,0 +1,97 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.CohortRetentionResponse;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.DailyActiveViewersRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class CohortRetentionServiceTest {
+
+    @Mock
+    private DailyActiveViewersRepository dailyActiveViewersRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CohortRetentionService cohortRetentionService;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        cohortRetentionService = new CohortRetentionService(
+                dailyActiveViewersRepository, transactionTemplate, new PlaybackProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cohortRetentionService.shutdown();
+    }
+
+    @Test
+    void shouldComputeRetentionOfNewViewerCohorts() {
+        active(12, 1L);
+        active(10, 1L, 2L, 3L);
+        active(9, 2L, 4L);
+        active(3, 3L);
+
+        CohortRetentionResponse response = cohortRetentionService.getRetention(
+                today.minusDays(10), today.minusDays(9), List.of(1, 7, 30));
+
+        CohortRetentionResponse.Cohort first = response.getCohorts().get(0);
+        assertEquals(today.minusDays(10), first.getDay());
+        // User 1 was already active two days earlier, so only users 2 and 3 are new
+        assertEquals(2, first.getNewViewers());
+        assertEquals(1, first.getRetention().get(0).getRetainedViewers());
+        assertEquals(50.0, first.getRetention().get(0).getPercentRetained(), 1e-9);
+        assertEquals(1, first.getRetention().get(1).getRetainedViewers());
+        assertNull(first.getRetention().get(2).getRetainedViewers());
+
+        CohortRetentionResponse.Cohort second = response.getCohorts().get(1);
+        assertEquals(1, second.getNewViewers());
+        assertEquals(0, second.getRetention().get(0).getRetainedViewers());
+    }
+
+    @Test
+    void shouldRejectOffsetsOutsideTheConfiguredRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> cohortRetentionService.getRetention(today.minusDays(5), today, List.of(0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> cohortRetentionService.getRetention(today, today.minusDays(1), List.of(1)));
+    }
+
+    @Test
+    void shouldStartAFreshEntryForActivityAfterAPastDayWasEvicted() {
+        active(3, 5L);
+        cohortRetentionService.flush();
+        active(3, 6L);
+
+        CohortRetentionResponse response = cohortRetentionService.getRetention(
+                today.minusDays(3), today.minusDays(3), List.of(1));
+
+        // User 5 went to the (mocked) store with the flush; user 6 must not be lost with the evicted entry
+        assertEquals(1, response.getCohorts().get(0).getNewViewers());
+    }
+
+    private void active(int daysAgo, Long... userIds) {
+        for (Long userId : userIds) {
+            cohortRetentionService.onPlaybackTracked(TrackedPlayback.builder()
+                    .userId(userId)
+                    .contentId(200L)
+                    .trackedAt(today.minusDays(daysAgo).atTime(12, 0))
+                    .build());
+        }
+    }
+}
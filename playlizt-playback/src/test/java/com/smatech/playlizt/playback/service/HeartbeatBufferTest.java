@@ -0,0 +1,131 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeartbeatBufferTest {
+
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @BeforeEach
+    void setUp() {
+        heartbeatBuffer = new HeartbeatBuffer(new PlaybackProperties());
+    }
+
+    @Test
+    void shouldCoalesceHeartbeatsPerUserAndContent() {
+        heartbeatBuffer.add(heartbeat(100L, 200L, 40));
+        heartbeatBuffer.add(heartbeat(100L, 200L, 100));
+        heartbeatBuffer.add(heartbeat(100L, 200L, 10));
+        heartbeatBuffer.add(heartbeat(100L, 200L, 70));
+        heartbeatBuffer.add(heartbeat(101L, 200L, 5));
+
+        assertEquals(2, heartbeatBuffer.size());
+
+        PendingPlayback pending = heartbeatBuffer.find(100L, 200L).orElseThrow();
+        assertEquals(40, pending.getFirstPositionSeconds());
+        assertEquals(70, pending.getLastPositionSeconds());
+        assertEquals(120, pending.getExtraWatchSeconds());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentHeartbeatsFromVirtualThreads() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < 200; user++) {
+                long userId = user;
+                executor.submit(() -> {
+                    for (int position = 10; position <= 100; position += 10) {
+                        heartbeatBuffer.add(heartbeat(userId, 200L, position));
+                    }
+                });
+            }
+        }
+
+        assertEquals(200, heartbeatBuffer.size());
+        PendingPlayback pending = heartbeatBuffer.find(42L, 200L).orElseThrow();
+        assertEquals(100, pending.getLastPositionSeconds());
+        assertEquals(90, pending.getExtraWatchSeconds());
+    }
+
+    @Test
+    void shouldMatchSequentialMergeWhenAppliedToStoredRow() {
+        ViewingHistory stored = ViewingHistory.builder()
+                .userId(100L)
+                .contentId(200L)
+                .watchTimeSeconds(60)
+                .lastPositionSeconds(30)
+                .completed(false)
+                .build();
+
+        heartbeatBuffer.add(heartbeat(100L, 200L, 20));
+        heartbeatBuffer.add(heartbeat(100L, 200L, 50));
+
+        ViewingHistory merged = heartbeatBuffer.find(100L, 200L).orElseThrow().applyTo(stored);
+
+        // 30 -> 20 adds nothing, 20 -> 50 adds 30
+        assertEquals(90, merged.getWatchTimeSeconds());
+        assertEquals(50, merged.getLastPositionSeconds());
+    }
+
+    @Test
+    void shouldKeepInFlightEntriesVisibleAndRequeueInOrder() {
+        heartbeatBuffer.add(heartbeat(100L, 200L, 10));
+        List<PendingPlayback> batch = heartbeatBuffer.drain(10);
+        heartbeatBuffer.add(heartbeat(100L, 200L, 25));
+
+        assertEquals(1, batch.size());
+        assertEquals(25, heartbeatBuffer.find(100L, 200L).orElseThrow().getLastPositionSeconds());
+
+        heartbeatBuffer.requeue(batch);
+
+        PendingPlayback pending = heartbeatBuffer.find(100L, 200L).orElseThrow();
+        assertEquals(10, pending.getFirstPositionSeconds());
+        assertEquals(25, pending.getLastPositionSeconds());
+        assertEquals(15, pending.getExtraWatchSeconds());
+    }
+
+    @Test
+    void shouldLeaveOutInFlightEntryOnceStoredRowHasIt() {
+        PendingPlayback flushing = heartbeat(100L, 200L, 10);
+        heartbeatBuffer.add(flushing);
+        heartbeatBuffer.drain(10);
+        heartbeatBuffer.add(heartbeat(100L, 200L, 25));
+
+        // Committed but not completed yet: the row already holds the drained entry
+        PendingPlayback pending = heartbeatBuffer.find(100L, 200L, flushing.getUpdatedAt()).orElseThrow();
+        assertEquals(25, pending.getFirstPositionSeconds());
+        assertEquals(0, pending.getExtraWatchSeconds());
+
+        PendingPlayback beforeCommit = heartbeatBuffer.find(100L, 200L, flushing.getUpdatedAt().minusSeconds(5)).orElseThrow();
+        assertEquals(10, beforeCommit.getFirstPositionSeconds());
+    }
+
+    @Test
+    void shouldForgetEntriesOnceFlushCompletes() {
+        heartbeatBuffer.add(heartbeat(100L, 200L, 10));
+        heartbeatBuffer.complete(heartbeatBuffer.drain(10));
+
+        assertTrue(heartbeatBuffer.isEmpty());
+        assertTrue(heartbeatBuffer.find(100L, 200L).isEmpty());
+    }
+
+    private PendingPlayback heartbeat(Long userId, Long contentId, int position) {
+        PlaybackRequest request = PlaybackRequest.builder()
+                .userId(userId)
+                .contentId(contentId)
+                .positionSeconds(position)
+                .build();
+        return PendingPlayback.of(request, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,81 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HeartbeatFlusherTest {
+
+    @Mock
+    private ViewingHistoryRepository viewingHistoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private HeartbeatBuffer heartbeatBuffer;
+    private HeartbeatFlusher heartbeatFlusher;
+
+    @BeforeEach
+    void setUp() {
+        PlaybackProperties playbackProperties = new PlaybackProperties();
+        heartbeatBuffer = new HeartbeatBuffer(playbackProperties);
+        heartbeatFlusher = new HeartbeatFlusher(heartbeatBuffer, viewingHistoryRepository, playbackProperties, eventPublisher);
+    }
+
+    @Test
+    void shouldWriteBatchOnceWhenListenerThrows() {
+        heartbeatBuffer.add(heartbeat(100L, 200L, 10));
+        heartbeatBuffer.add(heartbeat(101L, 200L, 20));
+        when(viewingHistoryRepository.mergeAll(anyList())).thenAnswer(invocation -> {
+            List<PendingPlayback> batch = invocation.getArgument(0);
+            return batch.stream().map(pending -> PlaybackUpsert.of(pending, null)).toList();
+        });
+        doThrow(new IllegalStateException("listener failed")).when(eventPublisher).publishEvent(any(Object.class));
+
+        heartbeatFlusher.flush();
+        heartbeatFlusher.flush();
+
+        verify(viewingHistoryRepository, times(1)).mergeAll(anyList());
+        // Every event is still offered even though the first listener call failed
+        verify(eventPublisher, times(2)).publishEvent(any(TrackedPlayback.class));
+        assertTrue(heartbeatBuffer.isEmpty());
+    }
+
+    @Test
+    void shouldRequeueBatchWhenWriteFails() {
+        heartbeatBuffer.add(heartbeat(100L, 200L, 10));
+        when(viewingHistoryRepository.mergeAll(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        heartbeatFlusher.flush();
+
+        assertEquals(1, heartbeatBuffer.size());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private PendingPlayback heartbeat(Long userId, Long contentId, int position) {
+        PlaybackRequest request = PlaybackRequest.builder()
+                .userId(userId)
+                .contentId(contentId)
+                .positionSeconds(position)
+                .build();
+        return PendingPlayback.of(request, LocalDateTime.now());
+    }
+}
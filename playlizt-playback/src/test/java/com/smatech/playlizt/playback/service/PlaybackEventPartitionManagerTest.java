@@ -0,0 +1,74 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.repository.PlaybackEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlaybackEventPartitionManagerTest {
+
+    @Mock
+    private PlaybackEventRepository playbackEventRepository;
+
+    @Spy
+    private PlaybackProperties playbackProperties = new PlaybackProperties();
+
+    @InjectMocks
+    private PlaybackEventPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        playbackProperties.getEvents().setEnabled(true);
+        playbackProperties.getEvents().setPremakeDays(2);
+        playbackProperties.getEvents().setRetentionDays(30);
+    }
+
+    @Test
+    void shouldCreateUpcomingPartitionsAndDropExpiredOnes() {
+        LocalDate today = LocalDate.now();
+        LocalDate expired = today.minusDays(31);
+        LocalDate kept = today.minusDays(30);
+        when(playbackEventRepository.findPartitionNames()).thenReturn(List.of(
+                PlaybackEventRepository.partitionName(expired),
+                PlaybackEventRepository.partitionName(kept),
+                "playback_events_default"));
+
+        partitionManager.maintain();
+
+        verify(playbackEventRepository).createPartition(today.minusDays(1));
+        verify(playbackEventRepository).createPartition(today);
+        verify(playbackEventRepository).createPartition(today.plusDays(2));
+        verify(playbackEventRepository, times(4)).createPartition(any());
+        verify(playbackEventRepository).dropPartition(expired);
+        verify(playbackEventRepository, times(1)).dropPartition(any());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        playbackProperties.getEvents().setEnabled(false);
+
+        partitionManager.maintain();
+
+        verifyNoInteractions(playbackEventRepository);
+    }
+
+    @Test
+    void shouldParsePartitionDay() {
+        assertEquals(LocalDate.of(2026, 10, 17), PlaybackEventPartitionManager.parseDay("playback_events_p20261017"));
+        assertNull(PlaybackEventPartitionManager.parseDay("playback_events_pbogus"));
+        assertNull(PlaybackEventPartitionManager.parseDay("viewing_history"));
+    }
+}
@@ -1,25 +1,42 @@
 package zw.co.t3ratech.playlizt.playback.service;
 
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.BatchTrackResponse;
+import zw.co.t3ratech.playlizt.playback.dto.CursorPage;
 import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
 import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ContentStats;
 import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackEvent;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentStatsRepository;
 import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +45,33 @@ class PlaybackServiceTest {
     @Mock
     private ViewingHistoryRepository viewingHistoryRepository;
 
+    @Mock
+    private ContentStatsRepository contentStatsRepository;
+
+    @Spy
+    private PlaybackProperties playbackProperties = new PlaybackProperties();
+
+    @Mock
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @Mock
+    private HeartbeatFlusher heartbeatFlusher;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlaybackEventLog playbackEventLog;
+
+    @Mock
+    private LiveViewerService liveViewerService;
+
+    @Mock
+    private WatchedCoverageService watchedCoverageService;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private PlaybackService playbackService;
 
@@ -54,26 +98,65 @@ class PlaybackServiceTest {
 
     @Test
     void shouldStartOrUpdatePlayback() {
-        when(viewingHistoryRepository.findByUserIdAndContentId(100L, 200L))
-                .thenReturn(Optional.of(testHistory));
-        when(viewingHistoryRepository.save(any(ViewingHistory.class))).thenReturn(testHistory);
+        when(viewingHistoryRepository.upsert(any(PendingPlayback.class)))
+                .thenReturn(PlaybackUpsert.builder().history(testHistory).inserted(true).build());
 
         PlaybackResponse response = playbackService.startOrUpdatePlayback(testRequest);
 
         assertNotNull(response);
-        verify(viewingHistoryRepository, times(1)).save(any(ViewingHistory.class));
+        assertEquals(60, response.getWatchTimeSeconds());
+        verify(viewingHistoryRepository, times(1)).upsert(any(PendingPlayback.class));
     }
 
     @Test
-    void shouldCreateNewPlaybackHistory() {
-        when(viewingHistoryRepository.findByUserIdAndContentId(100L, 200L))
-                .thenReturn(Optional.empty());
-        when(viewingHistoryRepository.save(any(ViewingHistory.class))).thenReturn(testHistory);
+    void shouldTrackWithSingleUpsertAndNoEntityLoad() {
+        when(viewingHistoryRepository.upsert(any(PendingPlayback.class)))
+                .thenReturn(PlaybackUpsert.builder().history(testHistory).inserted(true).build());
+
+        playbackService.startOrUpdatePlayback(testRequest);
+
+        ArgumentCaptor<PendingPlayback> captor = ArgumentCaptor.forClass(PendingPlayback.class);
+        verify(viewingHistoryRepository).upsert(captor.capture());
+        assertEquals(30, captor.getValue().getFirstPositionSeconds());
+        assertEquals(30, captor.getValue().getLastPositionSeconds());
+        verify(viewingHistoryRepository, never()).findByUserIdAndContentId(any(), any());
+        verify(viewingHistoryRepository, never()).save(any(ViewingHistory.class));
+        ArgumentCaptor<TrackedPlayback> tracked = ArgumentCaptor.forClass(TrackedPlayback.class);
+        verify(eventPublisher).publishEvent(tracked.capture());
+        assertTrue(tracked.getValue().isNewSession());
+        assertEquals(60, tracked.getValue().getWatchTimeDeltaSeconds());
+    }
+
+    @Test
+    void shouldBufferPlaybackWhenWriteBehindEnabled() {
+        playbackProperties.getWriteBehind().setEnabled(true);
+        when(heartbeatBuffer.add(any(PendingPlayback.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         PlaybackResponse response = playbackService.startOrUpdatePlayback(testRequest);
 
-        assertNotNull(response);
-        verify(viewingHistoryRepository, times(1)).save(any(ViewingHistory.class));
+        assertEquals(30, response.getLastPositionSeconds());
+        verifyNoInteractions(viewingHistoryRepository);
+        verify(heartbeatFlusher, never()).flush();
+    }
+
+    @Test
+    void shouldOverlayBufferedHeartbeatsOnPlaybackStatus() {
+        PendingPlayback pending = PendingPlayback.builder()
+                .userId(100L)
+                .contentId(200L)
+                .firstPositionSeconds(50)
+                .lastPositionSeconds(90)
+                .extraWatchSeconds(40)
+                .completed(false)
+                .build();
+        when(viewingHistoryRepository.findByUserIdAndContentId(100L, 200L))
+                .thenReturn(Optional.of(testHistory));
+        when(heartbeatBuffer.find(eq(100L), eq(200L), any())).thenReturn(Optional.of(pending));
+
+        PlaybackResponse response = playbackService.getPlaybackStatus(100L, 200L);
+
+        assertEquals(90, response.getLastPositionSeconds());
+        assertEquals(120, response.getWatchTimeSeconds());
     }
 
     @Test
@@ -99,33 +182,150 @@ class PlaybackServiceTest {
         assertEquals(1, result.getTotalElements());
     }
 
+    @Test
+    void shouldCollapseBatchPerPairAndWriteOnce() {
+        PlaybackRequest later = PlaybackRequest.builder().userId(100L).contentId(200L).positionSeconds(90).build();
+        PlaybackRequest other = PlaybackRequest.builder().userId(100L).contentId(201L).positionSeconds(15).build();
+        when(viewingHistoryRepository.mergeAll(anyList())).thenAnswer(invocation -> {
+            List<PendingPlayback> pending = invocation.getArgument(0);
+            return pending.stream().map(p -> PlaybackUpsert.of(p, null)).toList();
+        });
+
+        BatchTrackResponse response = playbackService.trackBatch(Arrays.asList(testRequest, later, other));
+
+        ArgumentCaptor<List<PendingPlayback>> captor = ArgumentCaptor.captor();
+        verify(viewingHistoryRepository).mergeAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(30, captor.getValue().get(0).getFirstPositionSeconds());
+        assertEquals(90, captor.getValue().get(0).getLastPositionSeconds());
+        assertEquals(60, captor.getValue().get(0).getExtraWatchSeconds());
+        assertEquals(3, response.getApplied());
+        assertEquals(90, response.getResults().get(0).getPlayback().getLastPositionSeconds());
+        assertEquals(90, response.getResults().get(1).getPlayback().getWatchTimeSeconds());
+        verify(eventPublisher, times(2)).publishEvent(any(TrackedPlayback.class));
+        verify(playbackEventLog, times(3)).append(any(PlaybackEvent.class));
+    }
+
+    @Test
+    void shouldRejectInvalidBatchItemsIndividually() {
+        PlaybackRequest missingContent = PlaybackRequest.builder().userId(100L).positionSeconds(5).build();
+        when(viewingHistoryRepository.mergeAll(anyList()))
+                .thenReturn(List.of(PlaybackUpsert.builder().history(testHistory).inserted(true).build()));
+
+        BatchTrackResponse response = playbackService.trackBatch(Arrays.asList(testRequest, missingContent, null));
+
+        assertEquals(3, response.getReceived());
+        assertEquals(1, response.getApplied());
+        assertEquals(2, response.getRejected());
+        assertEquals(BatchTrackResponse.Status.APPLIED, response.getResults().get(0).getStatus());
+        assertEquals(BatchTrackResponse.Status.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals("Content ID is required", response.getResults().get(1).getError());
+        assertEquals("Malformed request", response.getResults().get(2).getError());
+    }
+
+    @Test
+    void shouldBufferBatchWhenWriteBehindEnabled() {
+        playbackProperties.getWriteBehind().setEnabled(true);
+        when(heartbeatBuffer.add(any(PendingPlayback.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BatchTrackResponse response = playbackService.trackBatch(List.of(testRequest));
+
+        assertEquals(1, response.getApplied());
+        verify(viewingHistoryRepository, never()).mergeAll(anyList());
+    }
+
     @Test
     void shouldGetContinueWatching() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<ViewingHistory> historyPage = new PageImpl<>(Arrays.asList(testHistory));
-        when(viewingHistoryRepository.findContinueWatching(100L, pageable)).thenReturn(historyPage);
+        when(viewingHistoryRepository.findContinueWatching(100L, PageRequest.of(0, 11)))
+                .thenReturn(Arrays.asList(testHistory));
 
-        Page<PlaybackResponse> result = playbackService.getContinueWatching(100L, pageable);
+        CursorPage<PlaybackResponse> result = playbackService.getContinueWatching(100L, null, 10);
 
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldSeekPastCursorForNextSlice() {
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 10, 1, 12, 0, 0, 123_456_000);
+        ViewingHistory first = ViewingHistory.builder().id(7L).userId(100L).contentId(201L)
+                .watchTimeSeconds(10).lastPositionSeconds(10).completed(false).updatedAt(updatedAt).build();
+        ViewingHistory second = ViewingHistory.builder().id(6L).userId(100L).contentId(202L)
+                .watchTimeSeconds(10).lastPositionSeconds(10).completed(false).updatedAt(updatedAt).build();
+        when(viewingHistoryRepository.findContinueWatching(100L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(first, second));
+
+        CursorPage<PlaybackResponse> page = playbackService.getContinueWatching(100L, null, 1);
+
+        assertTrue(page.isHasNext());
+        assertEquals(1, page.getContent().size());
+        playbackService.getContinueWatching(100L, page.getNextCursor(), 1);
+        verify(viewingHistoryRepository).findContinueWatchingAfter(100L, updatedAt, 7L, PageRequest.of(0, 2));
     }
 
     @Test
-    void shouldGetUniqueViewers() {
-        when(viewingHistoryRepository.countUniqueViewersByContentId(200L)).thenReturn(5L);
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> playbackService.getContinueWatching(100L, "not-a-cursor", 10));
+    }
+
+    @Test
+    void shouldGetBulkStatsFromOneRollupLookup() {
+        when(contentStatsRepository.findAllById(any())).thenReturn(List.of(stats()));
+
+        List<ContentStats> result = playbackService.getContentStats(Arrays.asList(201L, 200L, 201L));
+
+        verify(contentStatsRepository, times(1)).findAllById(any());
+        assertEquals(2, result.size());
+        assertEquals(201L, result.get(0).getContentId());
+        assertEquals(0L, result.get(0).getUniqueViewers());
+        assertEquals(5L, result.get(1).getUniqueViewers());
+        verifyNoInteractions(viewingHistoryRepository);
+    }
+
+    @Test
+    void shouldGetUniqueViewersFromRollup() {
+        when(contentStatsRepository.findById(200L)).thenReturn(Optional.of(stats()));
 
         Long viewers = playbackService.getUniqueViewers(200L);
 
         assertEquals(5L, viewers);
+        verifyNoInteractions(viewingHistoryRepository);
     }
 
     @Test
-    void shouldGetTotalWatchTime() {
-        when(viewingHistoryRepository.sumWatchTimeByContentId(200L)).thenReturn(1200L);
+    void shouldGetTotalWatchTimeFromRollup() {
+        when(contentStatsRepository.findById(200L)).thenReturn(Optional.of(stats()));
 
         Long watchTime = playbackService.getTotalWatchTime(200L);
 
         assertEquals(1200L, watchTime);
     }
+
+    @Test
+    void shouldReturnZeroAnalyticsForUntrackedContent() {
+        when(contentStatsRepository.findById(300L)).thenReturn(Optional.empty());
+
+        assertEquals(0L, playbackService.getUniqueViewers(300L));
+        assertEquals(0L, playbackService.getTotalWatchTime(300L));
+    }
+
+    @Test
+    void shouldRebuildContentStatsFromHistory() {
+        when(contentStatsRepository.rebuildFromHistory()).thenReturn(3);
+
+        assertEquals(3, playbackService.rebuildContentStats());
+        verify(contentStatsRepository).deleteOrphaned();
+    }
+
+    private ContentStats stats() {
+        return ContentStats.builder()
+                .contentId(200L)
+                .uniqueViewers(5L)
+                .totalWatchTimeSeconds(1200L)
+                .completions(2L)
+                .starts(6L)
+                .build();
+    }
 }
@@ -0,0 +1,107 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PositionSyncServiceTest {
+
+    private PlaybackProperties playbackProperties;
+    private PositionSyncService positionSyncService;
+    private PlaybackResponse position;
+
+    @BeforeEach
+    void setUp() {
+        playbackProperties = new PlaybackProperties();
+        positionSyncService = new PositionSyncService(playbackProperties, new ObjectMapper().findAndRegisterModules());
+        position = PlaybackResponse.builder()
+                .userId(100L)
+                .contentId(200L)
+                .lastPositionSeconds(30)
+                .completed(false)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void shouldPushPositionToOtherDevicesOnly() throws IOException {
+        WebSocketSession phone = session("phone");
+        WebSocketSession tv = session("tv");
+        positionSyncService.register(100L, phone);
+        positionSyncService.register(100L, tv);
+
+        positionSyncService.broadcast(100L, position, "phone", "device-1");
+
+        verify(phone, never()).sendMessage(any());
+        ArgumentCaptor<WebSocketMessage<?>> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(tv).sendMessage(sent.capture());
+        String payload = ((TextMessage) sent.getValue()).getPayload();
+        assertTrue(payload.contains("\"type\":\"position\""));
+        assertTrue(payload.contains("\"contentId\":200"));
+        assertTrue(payload.contains("\"positionSeconds\":30"));
+        assertTrue(payload.contains("\"deviceId\":\"device-1\""));
+    }
+
+    @Test
+    void shouldPushHttpPositionsToEveryDevice() throws IOException {
+        WebSocketSession phone = session("phone");
+        positionSyncService.register(100L, phone);
+
+        positionSyncService.broadcast(100L, position, null, null);
+        positionSyncService.broadcast(101L, position, null, null);
+
+        verify(phone, times(1)).sendMessage(any());
+    }
+
+    @Test
+    void shouldDropDeviceThatFailsToReceive() throws IOException {
+        WebSocketSession broken = session("broken");
+        doThrow(new IOException("Broken pipe")).when(broken).sendMessage(any());
+        positionSyncService.register(100L, broken);
+
+        positionSyncService.broadcast(100L, position, null, null);
+
+        assertEquals(0, positionSyncService.connectionCount(100L));
+        verify(broken).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void shouldLimitConnectionsPerUser() {
+        playbackProperties.getSync().setMaxSessionsPerUser(1);
+        positionSyncService.register(100L, session("phone"));
+
+        assertThrows(IllegalStateException.class, () -> positionSyncService.register(100L, session("tv")));
+        assertEquals(1, positionSyncService.connectionCount(100L));
+    }
+
+    @Test
+    void shouldForgetClosedDevices() {
+        WebSocketSession phone = session("phone");
+        positionSyncService.register(100L, phone);
+
+        positionSyncService.unregister(100L, phone);
+
+        assertEquals(0, positionSyncService.connectionCount(100L));
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getId()).thenReturn(id);
+        lenient().when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
@@ -0,0 +1,119 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.model.PendingPlayback;
+import zw.co.t3ratech.playlizt.playback.model.PlaybackUpsert;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ReactiveViewingHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePlaybackServiceTest {
+
+    @Mock
+    private ReactiveViewingHistoryRepository reactiveViewingHistoryRepository;
+
+    @Mock
+    private PlaybackService playbackService;
+
+    @Spy
+    private PlaybackProperties playbackProperties = new PlaybackProperties();
+
+    @Mock
+    private HeartbeatBuffer heartbeatBuffer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReactivePlaybackService reactivePlaybackService;
+
+    private ViewingHistory stored;
+
+    @BeforeEach
+    void setUp() {
+        stored = ViewingHistory.builder()
+                .id(1L)
+                .userId(1L)
+                .contentId(100L)
+                .watchTimeSeconds(120)
+                .lastPositionSeconds(120)
+                .maxPositionSeconds(120)
+                .completed(false)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .updatedAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+
+    @Test
+    void shouldUpsertOverR2dbcAndPublishTrackedPlayback() {
+        PlaybackRequest request = PlaybackRequest.builder().userId(1L).contentId(100L).positionSeconds(150).build();
+        when(reactiveViewingHistoryRepository.upsert(any(PendingPlayback.class))).thenAnswer(invocation -> {
+            PendingPlayback pending = invocation.getArgument(0);
+            return Mono.just(PlaybackUpsert.of(pending, stored));
+        });
+
+        PlaybackResponse response = reactivePlaybackService.startOrUpdatePlayback(request).block();
+
+        assertNotNull(response);
+        assertEquals(150, response.getLastPositionSeconds());
+        verify(playbackService).recordHeartbeat(eq(request), any(LocalDateTime.class));
+        ArgumentCaptor<TrackedPlayback> tracked = ArgumentCaptor.forClass(TrackedPlayback.class);
+        verify(eventPublisher).publishEvent(tracked.capture());
+        assertEquals(100L, tracked.getValue().getContentId());
+        verifyNoInteractions(heartbeatBuffer);
+    }
+
+    @Test
+    void shouldBufferWithoutR2dbcWhenWriteBehindEnabled() {
+        playbackProperties.getWriteBehind().setEnabled(true);
+        PlaybackRequest request = PlaybackRequest.builder().userId(1L).contentId(100L).positionSeconds(150).build();
+        PlaybackResponse buffered = PlaybackResponse.builder().userId(1L).contentId(100L).lastPositionSeconds(150).build();
+        when(playbackService.bufferPlayback(eq(request), any(LocalDateTime.class))).thenReturn(buffered);
+
+        assertSame(buffered, reactivePlaybackService.startOrUpdatePlayback(request).block());
+        verifyNoInteractions(reactiveViewingHistoryRepository, eventPublisher);
+    }
+
+    @Test
+    void shouldApplyBufferedHeartbeatOverStoredRow() {
+        PendingPlayback pending = PendingPlayback.of(PlaybackRequest.builder().userId(1L).contentId(100L).positionSeconds(200).build(), LocalDateTime.now());
+        when(reactiveViewingHistoryRepository.findByUserIdAndContentId(1L, 100L)).thenReturn(Mono.just(stored));
+        when(heartbeatBuffer.find(eq(1L), eq(100L), any())).thenReturn(Optional.of(pending));
+
+        PlaybackResponse response = reactivePlaybackService.getPlaybackStatus(1L, 100L).block();
+
+        assertNotNull(response);
+        assertEquals(200, response.getLastPositionSeconds());
+    }
+
+    @Test
+    void shouldFailStatusWhenNothingStoredOrBuffered() {
+        when(reactiveViewingHistoryRepository.findByUserIdAndContentId(1L, 100L)).thenReturn(Mono.empty());
+        when(heartbeatBuffer.find(1L, 100L, null)).thenReturn(Optional.empty());
+
+        Mono<PlaybackResponse> status = reactivePlaybackService.getPlaybackStatus(1L, 100L);
+
+        assertThrows(IllegalArgumentException.class, status::block);
+    }
+}
@@ -0,0 +1,105 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.analytics.RetentionHistogram;
+import zw.co.t3ratech.playlizt.playback.dto.RetentionResponse;
+import zw.co.t3ratech.playlizt.playback.entity.ContentRetention;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentRetentionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionCurveServiceTest {
+
+    @Mock
+    private ContentRetentionRepository contentRetentionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RetentionCurveService retentionCurveService;
+
+    @BeforeEach
+    void setUp() {
+        retentionCurveService = new RetentionCurveService(contentRetentionRepository, transactionTemplate);
+        when(contentRetentionRepository.findById(200L)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void shouldMoveViewerBetweenBucketsOncePlaced() {
+        retentionCurveService.onPlaybackTracked(tracked(null, 10, 200));
+        retentionCurveService.onPlaybackTracked(tracked(10, 100, 200));
+
+        RetentionResponse retention = retentionCurveService.getRetention(200L);
+
+        assertEquals(1, retention.getViewers());
+        assertEquals(1, retention.getCurve().get(10).getViewersReached());
+        assertEquals(0, retention.getCurve().get(11).getViewersReached());
+    }
+
+    @Test
+    void shouldPlaceViewerAfreshWhenEarlierHeartbeatsHadNoDuration() {
+        retentionCurveService.onPlaybackTracked(tracked(null, 10, null));
+        retentionCurveService.onPlaybackTracked(tracked(10, 100, 200));
+
+        RetentionResponse retention = retentionCurveService.getRetention(200L);
+
+        assertEquals(1, retention.getViewers());
+        assertEquals(1, retention.getCurve().get(10).getViewersReached());
+    }
+
+    @Test
+    void shouldMoveViewerOutOfBucketPlacedWithEarlierDuration() {
+        retentionCurveService.onPlaybackTracked(tracked(null, 100, 200));
+        retentionCurveService.onPlaybackTracked(tracked(100, 150, 1000));
+
+        RetentionResponse retention = retentionCurveService.getRetention(200L);
+
+        assertEquals(1, retention.getViewers());
+        assertEquals(1, retention.getCurve().get(3).getViewersReached());
+        assertEquals(0, retention.getCurve().get(4).getViewersReached());
+        assertEquals(1000, retention.getDurationSeconds());
+    }
+
+    @Test
+    void shouldTakeDurationFromStoredCurveAfterRestart() {
+        when(contentRetentionRepository.findById(200L)).thenReturn(Optional.of(ContentRetention.builder()
+                .contentId(200L)
+                .durationSeconds(200)
+                .buckets(histogramWithViewerIn(10))
+                .build()));
+
+        retentionCurveService.onPlaybackTracked(tracked(100, 150, null));
+
+        RetentionResponse retention = retentionCurveService.getRetention(200L);
+
+        assertEquals(1, retention.getViewers());
+        assertEquals(1, retention.getCurve().get(15).getViewersReached());
+        assertEquals(0, retention.getCurve().get(16).getViewersReached());
+    }
+
+    private static byte[] histogramWithViewerIn(int bucket) {
+        RetentionHistogram histogram = new RetentionHistogram();
+        histogram.move(-1, bucket);
+        return histogram.toBytes();
+    }
+
+    private static TrackedPlayback tracked(Integer previousMax, int max, Integer duration) {
+        return TrackedPlayback.builder()
+                .userId(100L)
+                .contentId(200L)
+                .previousMaxPositionSeconds(previousMax)
+                .maxPositionSeconds(max)
+                .durationSeconds(duration)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.entity.ViewingHistory;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ViewingHistoryExportServiceTest {
+
+    @Mock
+    private ViewingHistoryRepository viewingHistoryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private ViewingHistoryExportService viewingHistoryExportService;
+
+    @BeforeEach
+    void setUp() {
+        viewingHistoryExportService = new ViewingHistoryExportService(
+                viewingHistoryRepository, new PlaybackProperties(), objectMapper);
+    }
+
+    @Test
+    void shouldWriteOneJsonLinePerRowAndCloseTheCursor() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        LocalDateTime now = LocalDateTime.now();
+        when(viewingHistoryRepository.streamHistory(100L, null, null, 1000)).thenReturn(LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> ViewingHistory.builder()
+                        .id(id)
+                        .userId(100L)
+                        .contentId(200L + id)
+                        .watchTimeSeconds(30)
+                        .lastPositionSeconds(30)
+                        .completed(false)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = viewingHistoryExportService.export(100L, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals(3, lines.length);
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertEquals(3, last.get("id").asLong());
+        assertEquals(203, last.get("contentId").asLong());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldRequireABoundedRangeWhenExportingAllUsers() {
+        LocalDateTime to = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> viewingHistoryExportService.validate(null, null, to));
+        assertThrows(IllegalArgumentException.class,
+                () -> viewingHistoryExportService.validate(null, to.minusDays(32), to));
+        assertThrows(IllegalArgumentException.class, () -> viewingHistoryExportService.validate(100L, to, to));
+        assertDoesNotThrow(() -> viewingHistoryExportService.validate(null, to.minusDays(7), to));
+        verifyNoInteractions(viewingHistoryRepository);
+    }
+}
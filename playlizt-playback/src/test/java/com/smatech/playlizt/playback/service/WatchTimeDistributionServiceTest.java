@@ -0,0 +1,88 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.WatchTimePercentiles;
+import zw.co.t3ratech.playlizt.playback.entity.ContentWatchTimeDigest;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ContentWatchTimeDigestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WatchTimeDistributionServiceTest {
+
+    @Mock
+    private ContentWatchTimeDigestRepository contentWatchTimeDigestRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private WatchTimeDistributionService watchTimeDistributionService;
+
+    @BeforeEach
+    void setUp() {
+        watchTimeDistributionService = new WatchTimeDistributionService(
+                contentWatchTimeDigestRepository, transactionTemplate, new PlaybackProperties());
+    }
+
+    @Test
+    void shouldCountOnlyWatchTimeOfIdleSessions() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(contentWatchTimeDigestRepository.findForUpdate(200L)).thenReturn(Optional.empty());
+        LocalDateTime idle = LocalDateTime.now().minusHours(1);
+        // A returning viewer: 100s were accumulated before this session started
+        watchTimeDistributionService.onPlaybackTracked(tracked(1L, 110, 10, idle));
+        watchTimeDistributionService.onPlaybackTracked(tracked(1L, 160, 50, idle));
+        watchTimeDistributionService.onPlaybackTracked(tracked(2L, 300, 300, idle));
+        // Still playing, so not yet part of the distribution
+        watchTimeDistributionService.onPlaybackTracked(tracked(3L, 900, 900, LocalDateTime.now()));
+
+        watchTimeDistributionService.flush();
+        ArgumentCaptor<ContentWatchTimeDigest> saved = ArgumentCaptor.forClass(ContentWatchTimeDigest.class);
+        verify(contentWatchTimeDigestRepository).save(saved.capture());
+        when(contentWatchTimeDigestRepository.findById(200L)).thenReturn(Optional.of(saved.getValue()));
+        WatchTimePercentiles percentiles = watchTimeDistributionService.getPercentiles(200L);
+
+        assertEquals(2, percentiles.getSessions());
+        assertTrue(percentiles.getP50() >= 60 && percentiles.getP50() <= 300);
+        assertEquals(300, percentiles.getP99(), 1e-9);
+        assertEquals(2, saved.getValue().getSessions());
+    }
+
+    @Test
+    void shouldReturnEmptyPercentilesWithoutSessions() {
+        when(contentWatchTimeDigestRepository.findById(200L)).thenReturn(Optional.empty());
+
+        WatchTimePercentiles percentiles = watchTimeDistributionService.getPercentiles(200L);
+
+        assertEquals(0, percentiles.getSessions());
+        assertNull(percentiles.getP50());
+    }
+
+    private static TrackedPlayback tracked(Long userId, int watchTime, int delta, LocalDateTime at) {
+        return TrackedPlayback.builder()
+                .userId(userId)
+                .contentId(200L)
+                .watchTimeSeconds(watchTime)
+                .watchTimeDeltaSeconds(delta)
+                .trackedAt(at)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.model.TrackedPlayback;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WatchedContentServiceTest {
+
+    @Mock
+    private ViewingHistoryRepository viewingHistoryRepository;
+
+    private WatchedContentService watchedContentService;
+
+    @BeforeEach
+    void setUp() {
+        watchedContentService = new WatchedContentService(viewingHistoryRepository, new PlaybackProperties());
+    }
+
+    @Test
+    void shouldLoadOnceAndServePortableBitmap() throws IOException {
+        when(viewingHistoryRepository.findContentIdsByUserId(100L)).thenReturn(List.of(200L, 201L, 5_000_000_000L));
+
+        watchedContentService.getWatched(100L);
+        byte[] bytes = watchedContentService.getWatchedBytes(100L);
+
+        Roaring64NavigableMap watched = new Roaring64NavigableMap();
+        watched.deserializePortable(new DataInputStream(new ByteArrayInputStream(bytes)));
+        assertEquals(3, watched.getLongCardinality());
+        assertTrue(watched.contains(5_000_000_000L));
+        verify(viewingHistoryRepository, times(1)).findContentIdsByUserId(100L);
+    }
+
+    @Test
+    void shouldAddNewlyStartedContentWithoutMutatingSnapshots() {
+        when(viewingHistoryRepository.findContentIdsByUserId(100L)).thenReturn(List.of(200L));
+        Roaring64NavigableMap before = watchedContentService.getWatched(100L);
+
+        watchedContentService.onPlaybackTracked(tracked(100L, 300L, true));
+        watchedContentService.onPlaybackTracked(tracked(100L, 400L, false));
+
+        Roaring64NavigableMap after = watchedContentService.getWatched(100L);
+        assertFalse(before.contains(300L));
+        assertTrue(after.contains(300L));
+        assertFalse(after.contains(400L));
+    }
+
+    @Test
+    void shouldIgnoreEventsForUsersNotInMemory() {
+        watchedContentService.onPlaybackTracked(tracked(100L, 300L, true));
+
+        verifyNoInteractions(viewingHistoryRepository);
+    }
+
+    private static TrackedPlayback tracked(Long userId, Long contentId, boolean newSession) {
+        return TrackedPlayback.builder()
+                .userId(userId)
+                .contentId(contentId)
+                .newSession(newSession)
+                .trackedAt(LocalDateTime.now())
+                .build();
+    }
+}
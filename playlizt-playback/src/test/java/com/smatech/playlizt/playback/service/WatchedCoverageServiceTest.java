@@ -0,0 +1,84 @@
+package zw.co.t3ratech.playlizt.playback.service;
+
+import zw.co.t3ratech.playlizt.playback.config.PlaybackProperties;
+import zw.co.t3ratech.playlizt.playback.dto.CoverageResponse;
+import zw.co.t3ratech.playlizt.playback.dto.PlaybackRequest;
+import zw.co.t3ratech.playlizt.playback.repository.ViewingCoverageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WatchedCoverageServiceTest {
+
+    @Mock
+    private ViewingCoverageRepository viewingCoverageRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private WatchedCoverageService watchedCoverageService;
+
+    @BeforeEach
+    void setUp() {
+        watchedCoverageService = new WatchedCoverageService(
+                viewingCoverageRepository, transactionTemplate, new PlaybackProperties());
+    }
+
+    @Test
+    void shouldCountPlayedSecondsButNotSeeksOrRewinds() {
+        when(viewingCoverageRepository.findById(any())).thenReturn(Optional.empty());
+        LocalDateTime now = LocalDateTime.now();
+
+        heartbeat(0, now);
+        heartbeat(10, now);
+        heartbeat(20, now);
+        // Seek forward past the heartbeat gap
+        heartbeat(300, now);
+        heartbeat(310, now);
+        // Rewind and re-watch seconds already counted
+        heartbeat(5, now);
+        heartbeat(15, now);
+
+        CoverageResponse coverage = watchedCoverageService.getCoverage(100L, 200L);
+
+        assertEquals(30, coverage.getUniqueSecondsWatched());
+        assertEquals(600, coverage.getDurationSeconds());
+        assertEquals(5.0, coverage.getCoveragePercent(), 1e-9);
+        assertEquals(2, coverage.getWatchedRanges().size());
+        assertEquals(300, coverage.getWatchedRanges().get(1).getStartSecond());
+        assertEquals(310, coverage.getWatchedRanges().get(1).getEndSecond());
+    }
+
+    @Test
+    void shouldEvictIdleSessionsWithNothingPending() {
+        when(viewingCoverageRepository.findById(any())).thenReturn(Optional.empty());
+
+        heartbeat(0, LocalDateTime.now().minusHours(1));
+        watchedCoverageService.flush();
+        heartbeat(10, LocalDateTime.now());
+
+        // The earlier position was dropped with the idle session, so nothing was played in between
+        assertEquals(0, watchedCoverageService.getCoverage(100L, 200L).getUniqueSecondsWatched());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private void heartbeat(int position, LocalDateTime at) {
+        watchedCoverageService.record(PlaybackRequest.builder()
+                .userId(100L)
+                .contentId(200L)
+                .positionSeconds(position)
+                .durationSeconds(600)
+                .build(), at);
+    }
+}